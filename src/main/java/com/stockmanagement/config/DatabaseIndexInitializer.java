@@ -5,13 +5,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.sql.Statement;
+
 @Component
 public class DatabaseIndexInitializer {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseIndexInitializer.class);
 
+    public static final String CUSTOMER_SEARCH_INDEX = "ft_customers_search";
+    // Index comment marking a full-text index built with stopwords disabled
+    public static final String NO_STOPWORDS_COMMENT = "ngram, stopwords off";
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -35,6 +42,17 @@ public class DatabaseIndexInitializer {
             // Check and create index for bill_items(product_id)
             createIndexIfNotExists("bill_items", "product_id", "idx_bill_items_product_id");
             
+            // Composite indexes behind the staff advanced search (see StaffSpecifications)
+            createIndexIfNotExists("staff", "department, role, is_active", "idx_staff_dept_role_active");
+            createIndexIfNotExists("staff", "hire_date", "idx_staff_hire_date");
+
+            // Customer list order, used by the keyset pager (see CustomerService.getCustomerPage)
+            createIndexIfNotExists("customers", "last_name, id", "idx_customers_last_name_id");
+
+            // N-gram full-text index for the customer search box (see CustomerService.searchCustomers)
+            createFullTextIndexIfNotExists("customers", "first_name, last_name, email, phone, customer_id",
+                    CUSTOMER_SEARCH_INDEX);
+            
             logger.info("Database indexes created successfully");
         } catch (Exception e) {
             logger.error("Error creating database indexes", e);
@@ -66,4 +84,76 @@ public class DatabaseIndexInitializer {
             logger.warn("Error checking/creating index {} on table {}: {}", indexName, tableName, e.getMessage());
         }
     }
+    
+    /**
+     * Create a FULLTEXT index with MySQL's ngram parser, which matches substrings of names,
+     * emails and numbers instead of whole words only.
+     * The ngram parser drops every token that contains a stopword, and the default list has
+     * single letters such as "a" and "i", so most bigrams of ordinary names would never be
+     * indexed. Stopwords are fixed when the index is built, so it is built with them disabled
+     * for this session and tagged with NO_STOPWORDS_COMMENT; an index built earlier without
+     * the tag is rebuilt.
+     */
+    private void createFullTextIndexIfNotExists(String tableName, String columnNames, String indexName) {
+        try {
+            if (isFullTextIndexWithoutStopwords(tableName, indexName)) {
+                logger.info("Index {} already exists on table {}", indexName, tableName);
+                return;
+            }
+            boolean rebuild = indexExists(tableName, indexName);
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    if (rebuild) {
+                        statement.execute(String.format("DROP INDEX %s ON %s", indexName, tableName));
+                    }
+                    statement.execute("SET SESSION innodb_ft_enable_stopword = OFF");
+                    try {
+                        statement.execute(String.format("CREATE FULLTEXT INDEX %s ON %s(%s) WITH PARSER ngram COMMENT '%s'",
+                                indexName, tableName, columnNames, NO_STOPWORDS_COMMENT));
+                    } finally {
+                        // The connection goes back to the pool
+                        statement.execute("SET SESSION innodb_ft_enable_stopword = DEFAULT");
+                    }
+                }
+                return null;
+            });
+            logger.info("{} full-text index {} on table {} without stopwords", rebuild ? "Rebuilt" : "Created", indexName, tableName);
+        } catch (Exception e) {
+            logger.warn("Error checking/creating full-text index {} on table {}: {}", indexName, tableName, e.getMessage());
+        }
+    }
+
+    /**
+     * Whether the full-text index exists and was built with stopwords disabled
+     */
+    public boolean isFullTextIndexWithoutStopwords(String tableName, String indexName) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(1) FROM INFORMATION_SCHEMA.STATISTICS " +
+            "WHERE table_schema = DATABASE() " +
+            "AND table_name = ? " +
+            "AND index_name = ? " +
+            "AND index_comment = ?",
+            Integer.class,
+            tableName,
+            indexName,
+            NO_STOPWORDS_COMMENT
+        );
+        return count != null && count > 0;
+    }
+    
+    /**
+     * Whether the index exists on the table in the current schema
+     */
+    public boolean indexExists(String tableName, String indexName) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(1) FROM INFORMATION_SCHEMA.STATISTICS " +
+            "WHERE table_schema = DATABASE() " +
+            "AND table_name = ? " +
+            "AND index_name = ?",
+            Integer.class, 
+            tableName, 
+            indexName
+        );
+        return count != null && count > 0;
+    }
 }
\ No newline at end of file
@@ -32,6 +32,9 @@ public class ObserverConfig {
     @Autowired
     private AutoReorderObserver autoReorderObserver;
     
+    @Autowired
+    private StockPushObserver stockPushObserver;
+    
     /**
      * Register all observers on application startup
      */
@@ -48,10 +51,11 @@ public class ObserverConfig {
             itemService.registerObserver(auditLogObserver);
             itemService.registerObserver(dashboardUpdateObserver);
             itemService.registerObserver(autoReorderObserver);
+            itemService.registerObserver(stockPushObserver);
             
             System.out.println("╔═══════════════════════════════════════════════════════════╗");
             System.out.println("║  ✅ All observers registered successfully!                ║");
-            System.out.println("║  📊 5 observers are now monitoring stock changes          ║");
+            System.out.println("║  📊 6 observers are now monitoring stock changes          ║");
             System.out.println("╚═══════════════════════════════════════════════════════════╝\n");
         };
     }
@@ -0,0 +1,90 @@
+package com.stockmanagement.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in read cache for reference data (suppliers, promotions, discounts), enabled with
+ * reference.cache.enabled=true. Each region has its own TTL and size limit:
+ *   reference.cache.{region}.ttl-seconds  (default 600 for entity regions, 60 for query regions)
+ *   reference.cache.{region}.max-entries  (default 1000)
+ * Regions are handed out wrapped in a TransactionAwareCacheDecorator, so a @CacheEvict (or put)
+ * inside a transaction takes effect after it commits; evicting before the commit would let a
+ * concurrent read cache the old row again.
+ * When disabled, @Cacheable and @CacheEvict on the services are inert and every read goes to the database.
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "reference.cache.enabled", havingValue = "true")
+public class ReferenceCacheConfig {
+
+    // Single-entity regions, keyed by id
+    public static final String SUPPLIERS = "suppliers";
+    public static final String PROMOTIONS = "promotions";
+    public static final String DISCOUNTS = "discounts";
+
+    // Query result regions (lists), evicted as a whole on any write to the entity
+    public static final String SUPPLIER_QUERIES = "supplierQueries";
+    public static final String PROMOTION_QUERIES = "promotionQueries";
+    public static final String DISCOUNT_QUERIES = "discountQueries";
+
+    private static final long ENTITY_TTL_SECONDS = 600;
+    private static final long QUERY_TTL_SECONDS = 60;
+    private static final int MAX_ENTRIES = 1000;
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        return new RegionCacheManager(environment);
+    }
+
+    /**
+     * Creates regions on first use, configured from reference.cache.{region}.* properties
+     */
+    public static class RegionCacheManager implements CacheManager {
+        private final Environment environment;
+        private final Map<String, RegionCache> regions = new ConcurrentHashMap<>();
+        private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+        public RegionCacheManager(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Cache getCache(String name) {
+            return caches.computeIfAbsent(name,
+                    n -> new TransactionAwareCacheDecorator(regions.computeIfAbsent(n, this::createRegion)));
+        }
+
+        @Override
+        public Collection<String> getCacheNames() {
+            return Collections.unmodifiableSet(regions.keySet());
+        }
+
+        public Map<String, Map<String, Object>> getStatistics() {
+            Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+            regions.values().stream()
+                    .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                    .forEach(region -> stats.put(region.getName(), region.getStatistics()));
+            return stats;
+        }
+
+        private RegionCache createRegion(String name) {
+            long defaultTtl = name.endsWith("Queries") ? QUERY_TTL_SECONDS : ENTITY_TTL_SECONDS;
+            long ttl = environment.getProperty("reference.cache." + name + ".ttl-seconds", Long.class, defaultTtl);
+            int maxEntries = environment.getProperty("reference.cache." + name + ".max-entries", Integer.class, MAX_ENTRIES);
+            return new RegionCache(name, ttl, maxEntries);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.stockmanagement.config;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One named cache region: entries expire after a fixed time-to-live and the region holds
+ * at most maxEntries values. When it overflows, expired entries go first; if that is not
+ * enough, the oldest entries are evicted until a tenth of the region is free again, so the
+ * sort this takes is not repeated on every put. Keeps hit, miss and eviction counters for
+ * the cache admin endpoint.
+ */
+public class RegionCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Object, Entry> store = new ConcurrentHashMap<>();
+    // Loads in progress, so concurrent misses on one key run the loader once
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RegionCache(String name, long ttlSeconds, int maxEntries) {
+        super(true);
+        this.name = name;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Entry entry = store.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            if (store.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+        // Only one caller loads a missing key; the others wait for its value. The loader runs
+        // outside any map lock, so it never blocks clear() or other keys and may use this cache.
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inProgress = loading.putIfAbsent(key, load);
+        if (inProgress != null) {
+            try {
+                return (T) fromStoreValue(inProgress.join());
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            Entry existing = store.get(key);
+            Object value;
+            if (existing != null && !existing.isExpired(System.nanoTime())) {
+                // Stored by a load that finished after our lookup
+                value = existing.value;
+            } else {
+                value = toStoreValue(valueLoader.call());
+                store.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+                puts.increment();
+                trim();
+            }
+            load.complete(value);
+            return (T) fromStoreValue(value);
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store.put(key, new Entry(toStoreValue(value), System.nanoTime() + ttlNanos));
+        puts.increment();
+        trim();
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (store.remove(key) != null) {
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public void clear() {
+        evictions.add(store.size());
+        store.clear();
+    }
+
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", store.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("puts", puts.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    /**
+     * Bring the region back under maxEntries: expired entries first, then the oldest
+     */
+    private void trim() {
+        if (store.size() <= maxEntries) {
+            return;
+        }
+        long now = System.nanoTime();
+        store.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().isExpired(now);
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        if (store.size() <= maxEntries) {
+            return;
+        }
+        // Every entry of a region has the same TTL, so the earliest expiry is the oldest write
+        List<Map.Entry<Object, Entry>> byAge = new ArrayList<>(store.entrySet());
+        byAge.sort((a, b) -> Long.compare(a.getValue().expiresAtNanos - now, b.getValue().expiresAtNanos - now));
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        for (Map.Entry<Object, Entry> oldest : byAge) {
+            if (store.size() <= target) {
+                break;
+            }
+            // Skip keys rewritten since the copy was taken
+            if (store.remove(oldest.getKey(), oldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAtNanos;
+
+        private Entry(Object value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
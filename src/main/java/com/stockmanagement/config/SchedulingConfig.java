@@ -0,0 +1,12 @@
+package com.stockmanagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled jobs (day-boundary index rebuilds and other periodic maintenance)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,13 +1,18 @@
 package com.stockmanagement.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stockmanagement.dto.BillRequest;
 import com.stockmanagement.entity.Bill;
 import com.stockmanagement.entity.BillStatus;
 import com.stockmanagement.service.BillService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,14 +21,40 @@ import java.util.Optional;
     @CrossOrigin(origins = "*")
     public class BillController {
 
+        private static final String NDJSON = "application/x-ndjson";
+
         @Autowired
         private BillService billService;
 
+        @Autowired
+        private ObjectMapper objectMapper;
+
         @GetMapping
         public List<Bill> getAllBills() {
             return billService.getAllBills();
         }
 
+        /**
+         * Cursor-based export: one bill summary per line (NDJSON), in id order.
+         * Clients resume from the last id they received with ?afterId=...
+         */
+        @GetMapping(produces = NDJSON)
+        public ResponseEntity<StreamingResponseBody> streamBills(
+                @RequestParam(required = false) Long afterId,
+                @RequestParam(required = false) Integer limit) {
+            StreamingResponseBody body = out -> billService.streamBills(afterId, limit, bill -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(bill));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(NDJSON))
+                    .body(body);
+        }
+
         @GetMapping("/{id}")
         public ResponseEntity<Bill> getBillById(@PathVariable Long id) {
             Optional<Bill> bill = billService.getBillById(id);
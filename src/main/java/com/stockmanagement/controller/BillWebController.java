@@ -11,8 +11,6 @@ import com.stockmanagement.service.CustomerService;
 import com.stockmanagement.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -21,8 +19,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
-// Time imports removed as they were unused
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -48,40 +45,60 @@ public class BillWebController {
             @RequestParam(required = false) String status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Long total,
             Model model) {
         
-        List<Bill> bills = billService.getAllBills();
-        
-        // Filter by date range if provided
-        if (startDate != null && endDate != null) {
-            bills = bills.stream()
-                .filter(bill -> {
-                    LocalDate billDate = bill.getBillDate().toLocalDate();
-                    return !billDate.isBefore(startDate) && !billDate.isAfter(endDate);
-                })
-                .toList();
+        // Each date filters on its own, so each goes back to the form on its own
+        if (startDate != null) {
             model.addAttribute("startDate", startDate);
+        }
+        if (endDate != null) {
             model.addAttribute("endDate", endDate);
         }
         
-        // Filter by status if provided
+        // Parse status filter; an unknown status matches no bills
+        BillStatus billStatus = null;
+        boolean unknownStatus = false;
         if (status != null && !status.isEmpty()) {
-            bills = bills.stream()
-                .filter(bill -> status.equalsIgnoreCase(bill.getStatus().name()))
-                .toList();
             model.addAttribute("status", status);
+            try {
+                billStatus = BillStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                unknownStatus = true;
+            }
         }
         
-        // Manual pagination
-        int start = page * size;
-        int end = Math.min((start + size), bills.size());
+        List<Bill> bills;
+        long totalBills;
+        if (unknownStatus) {
+            bills = new ArrayList<>();
+            totalBills = 0;
+        } else if (afterDate != null && afterId != null) {
+            // Sequential "next" navigation: seek past the last row of the previous page
+            bills = billService.searchBillsAfter(startDate, endDate, billStatus, afterDate, afterId, size);
+            // The count travels with the cursor, so deep pages do not re-count the whole range
+            totalBills = total != null ? total : billService.countBills(startDate, endDate, billStatus);
+        } else {
+            Page<Bill> billPage = billService.searchBills(startDate, endDate, billStatus, page, size);
+            bills = billPage.getContent();
+            totalBills = billPage.getTotalElements();
+        }
         
-        List<Bill> paginatedBills = start < bills.size() ? bills.subList(start, end) : new ArrayList<>();
-        Page<Bill> billPage = new PageImpl<>(paginatedBills, PageRequest.of(page, size), bills.size());
+        int totalPages = size > 0 ? (int) ((totalBills + size - 1) / size) : 0;
         
-        model.addAttribute("bills", billPage.getContent());
+        // Cursor for the next page link
+        if (bills.size() == size) {
+            Bill last = bills.get(bills.size() - 1);
+            model.addAttribute("nextAfterDate", last.getBillDate());
+            model.addAttribute("nextAfterId", last.getId());
+        }
+        
+        model.addAttribute("bills", bills);
         model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", billPage.getTotalPages());
+        model.addAttribute("totalPages", totalPages);
+        model.addAttribute("totalBills", totalBills);
         
         return "bills/list";
     }
@@ -414,6 +431,8 @@ public class BillWebController {
     public String showReportsPage(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "25") int size,
             Model model) {
         
         // Default to current month if dates not provided
@@ -427,6 +446,21 @@ public class BillWebController {
         // Generate bill report
         Map<String, Object> reportData = billService.getSalesReport(startDate, endDate);
         model.addAttribute("reportData", reportData);
+        
+        // Bill rows are loaded one page at a time, separately from the aggregates
+        Page<Bill> billPage = billService.searchBills(startDate, endDate, null, page, size);
+        model.addAttribute("bills", billPage.getContent());
+        // The table footer sums the rows shown; the range total comes from reportData
+        BigDecimal pageTotal = BigDecimal.ZERO;
+        for (Bill bill : billPage.getContent()) {
+            if (bill.getTotalAmount() != null) {
+                pageTotal = pageTotal.add(bill.getTotalAmount());
+            }
+        }
+        model.addAttribute("pageTotal", pageTotal);
+        model.addAttribute("currentPage", page);
+        model.addAttribute("totalPages", billPage.getTotalPages());
+        model.addAttribute("size", size);
         model.addAttribute("startDate", startDate);
         model.addAttribute("endDate", endDate);
         
@@ -0,0 +1,54 @@
+package com.stockmanagement.controller;
+
+import com.stockmanagement.config.ReferenceCacheConfig;
+import com.stockmanagement.service.ItemService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin view of the application caches: per-region hit ratios and manual clearing
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheAdminController {
+
+    @Autowired
+    private ObjectProvider<CacheManager> cacheManager;
+
+    @Autowired
+    private ItemService itemService;
+
+    @GetMapping
+    public Map<String, Object> cacheStatistics() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        CacheManager manager = cacheManager.getIfAvailable();
+        response.put("referenceCacheEnabled", manager != null);
+        if (manager instanceof ReferenceCacheConfig.RegionCacheManager regionManager) {
+            response.put("regions", regionManager.getStatistics());
+        }
+        response.put("itemCatalog", itemService.getCatalogMetrics());
+        return response;
+    }
+
+    @DeleteMapping("/{region}")
+    public ResponseEntity<String> clearRegion(@PathVariable String region) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache cache = manager != null && manager.getCacheNames().contains(region) ? manager.getCache(region) : null;
+        if (cache == null) {
+            return ResponseEntity.notFound().build();
+        }
+        cache.clear();
+        return ResponseEntity.ok("Cache region cleared: " + region);
+    }
+}
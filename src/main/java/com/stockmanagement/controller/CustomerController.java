@@ -57,8 +57,11 @@ public class CustomerController {
         }
 
         @GetMapping("/search")
-        public List<Customer> searchCustomers(@RequestParam String keyword) {
-            return customerService.searchCustomers(keyword);
+        public List<Customer> searchCustomers(@RequestParam String keyword,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "50") int size) {
+            // Best matches first, one page at a time
+            return customerService.searchCustomers(keyword, page, size).getContent();
         }
     }
 
@@ -3,10 +3,9 @@ package com.stockmanagement.controller;
 import com.stockmanagement.entity.Customer;
 import com.stockmanagement.service.CustomerService;
 import com.stockmanagement.service.FileStorageService;
+import com.stockmanagement.service.ImageVariantService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -14,7 +13,6 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -28,25 +26,30 @@ public class CustomerWebController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
     @GetMapping
     public String listCustomers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String afterName,
+            @RequestParam(required = false) Long afterId,
             Model model) {
         
-        List<Customer> allCustomers = customerService.getAllCustomers();
-        
-        // Manual pagination since we're not using Spring Data repositories directly
-        int start = page * size;
-        int end = Math.min((start + size), allCustomers.size());
-        
-        List<Customer> paginatedCustomers = allCustomers.subList(start, end);
-        Page<Customer> customerPage = new PageImpl<>(paginatedCustomers, PageRequest.of(page, size), allCustomers.size());
+        Page<Customer> customerPage = customerService.getCustomerPage(page, size, afterName, afterId);
         
         model.addAttribute("customers", customerPage.getContent());
-        model.addAttribute("currentPage", page);
+        model.addAttribute("currentPage", customerPage.getNumber());
         model.addAttribute("totalPages", customerPage.getTotalPages());
         
+        // Cursor for the Next link, so paging forward stays a keyset read however deep it goes
+        if (customerPage.hasContent()) {
+            Customer last = customerPage.getContent().get(customerPage.getNumberOfElements() - 1);
+            model.addAttribute("nextAfterName", last.getLastName());
+            model.addAttribute("nextAfterId", last.getId());
+        }
+        
         return "customers/list";
     }
     
@@ -67,10 +70,12 @@ public class CustomerWebController {
             if (photo != null && !photo.isEmpty()) {
                 String photoUrl = fileStorageService.storeFile(photo, "customer-photos");
                 customer.setPhotoUrl(photoUrl);
-                customer.setPhotoThumbnailUrl(photoUrl); // For simplicity, using same URL
             }
             
             Customer savedCustomer = customerService.createCustomer(customer);
+            if (savedCustomer.getPhotoUrl() != null) {
+                imageVariantService.scheduleVariants(savedCustomer.getPhotoUrl()); // Thumbnail recorded once generated
+            }
             redirectAttributes.addFlashAttribute("successMessage", 
                     "Customer " + savedCustomer.getFirstName() + " " + savedCustomer.getLastName() + " created successfully");
             
@@ -143,10 +148,12 @@ public class CustomerWebController {
                     
                     String photoUrl = fileStorageService.storeFile(photo, "customer-photos");
                     customer.setPhotoUrl(photoUrl);
-                    customer.setPhotoThumbnailUrl(photoUrl); // For simplicity, using same URL
                 }
                 
                 Customer updatedCustomer = customerService.updateCustomer(id, customer);
+                if (photo != null && !photo.isEmpty()) {
+                    imageVariantService.scheduleVariants(updatedCustomer.getPhotoUrl()); // Thumbnail recorded once generated
+                }
                 redirectAttributes.addFlashAttribute("successMessage", 
                         "Customer " + updatedCustomer.getFirstName() + " " + updatedCustomer.getLastName() + " updated successfully");
                 
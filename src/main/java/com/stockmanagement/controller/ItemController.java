@@ -3,7 +3,10 @@ package com.stockmanagement.controller;
 
 import com.stockmanagement.entity.Item;
 import com.stockmanagement.service.AddItemService;
+import com.stockmanagement.service.AuditLogWriter;
+import com.stockmanagement.service.DashboardStatistics;
 import com.stockmanagement.service.DeleteItemService;
+import com.stockmanagement.service.ItemService;
 import com.stockmanagement.service.UpdateItemService;
 import com.stockmanagement.service.ViewItemService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +16,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -31,6 +35,15 @@ public class ItemController {
     @Autowired
     private DeleteItemService deleteItemService;
 
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private DashboardStatistics dashboardStatistics;
+
     @GetMapping
     public String home() {
         return "redirect:/"; // serve static index.html at root
@@ -54,6 +67,30 @@ public class ItemController {
         return viewItemService.getAllItems();
     }
 
+    @GetMapping("/api/observers/metrics")
+    @ResponseBody
+    public Map<String, Map<String, Object>> observerMetrics() {
+        return itemService.getObserverMetrics();
+    }
+
+    @GetMapping("/api/catalog/metrics")
+    @ResponseBody
+    public Map<String, Object> catalogMetrics() {
+        return itemService.getCatalogMetrics();
+    }
+
+    @GetMapping("/api/observers/audit-writer")
+    @ResponseBody
+    public Map<String, Object> auditWriterMetrics() {
+        return auditLogWriter.getMetrics();
+    }
+
+    @GetMapping("/api/dashboard/stats")
+    @ResponseBody
+    public Map<String, Object> dashboardStats() {
+        return dashboardStatistics.getStats();
+    }
+
     @PostMapping("/add")
     @ResponseBody
     public ResponseEntity<String> addItem(@RequestBody Item item, Model model) {
@@ -0,0 +1,56 @@
+package com.stockmanagement.controller;
+
+import com.stockmanagement.service.SalesRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin operations on the daily sales rollup: consistency check, repair and full rebuild
+ */
+@RestController
+@RequestMapping("/api/admin/sales-rollup")
+public class SalesRollupAdminController {
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    /**
+     * Days in the range where the rollup differs from the bills table (nothing is changed)
+     */
+    @GetMapping("/reconcile")
+    public Map<String, Object> check(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<LocalDate> mismatched = salesRollupService.findMismatchedDays(startDate, endDate);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("ready", salesRollupService.isReady());
+        response.put("consistent", mismatched.isEmpty());
+        response.put("mismatchedDays", mismatched);
+        return response;
+    }
+
+    /**
+     * Rebuild the rollup for a date range, or completely when no range is given
+     */
+    @PostMapping("/rebuild")
+    public Map<String, Object> rebuild(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int rows = startDate != null && endDate != null
+                ? salesRollupService.rebuild(startDate, endDate)
+                : salesRollupService.rebuildAll();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("rowsWritten", rows);
+        return response;
+    }
+}
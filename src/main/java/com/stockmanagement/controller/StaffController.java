@@ -2,8 +2,10 @@ package com.stockmanagement.controller;
 
 import com.stockmanagement.entity.Staff;
 import com.stockmanagement.service.FileStorageService;
+import com.stockmanagement.service.ImageVariantService;
 import com.stockmanagement.service.StaffService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -25,6 +27,9 @@ public class StaffController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
     @GetMapping
     public ResponseEntity<List<Staff>> getAllStaff() {
         try {
@@ -291,11 +296,12 @@ public class StaffController {
             // Store new photo
             String photoUrl = fileStorageService.storeFile(photo, "staff-photos");
 
-            // For simplicity, using same URL for thumbnail
+            // The thumbnail of the new photo is recorded once it has been generated
             staff.setPhotoUrl(photoUrl);
-            staff.setPhotoThumbnailUrl(photoUrl);
+            staff.setPhotoThumbnailUrl(null);
 
             Staff updatedStaff = staffService.updateStaff(id, staff);
+            imageVariantService.scheduleVariants(photoUrl);
             return ResponseEntity.ok(updatedStaff);
 
         } catch (Exception e) {
@@ -335,7 +341,9 @@ public class StaffController {
         }
     }
 
-    // Advanced search endpoint
+    // Advanced search endpoint. Without page and size every match is returned, as before paging
+    // was added; with either of them the body is one page (50 rows unless size says otherwise).
+    // X-Total-Count always carries the overall match count.
     @GetMapping("/search/advanced")
     public ResponseEntity<?> advancedSearch(
             @RequestParam(required = false) String name,
@@ -347,14 +355,22 @@ public class StaffController {
             @RequestParam(required = false) Double maxRating,
             @RequestParam(required = false) String hireDateFrom,
             @RequestParam(required = false) String hireDateTo,
-            @RequestParam(required = false) Boolean isActive) {
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
 
         try {
-            List<Staff> staffList = staffService.advancedSearch(
+            Page<Staff> staffPage = staffService.advancedSearch(
                     name, department, role, minSalary, maxSalary,
-                    minRating, maxRating, hireDateFrom, hireDateTo, isActive
+                    minRating, maxRating, hireDateFrom, hireDateTo, isActive,
+                    page, size, sortBy, direction
             );
-            return ResponseEntity.ok(staffList);
+            // The matches (or one page of them) in the body, the overall match count in a header
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(staffPage.getTotalElements()))
+                    .body(staffPage.getContent());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse("Error performing advanced search: " + e.getMessage()));
@@ -2,6 +2,7 @@ package com.stockmanagement.controller;
 
 import com.stockmanagement.entity.Staff;
 import com.stockmanagement.service.FileStorageService;
+import com.stockmanagement.service.ImageVariantService;
 import com.stockmanagement.service.StaffService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -12,6 +13,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
 import java.util.List;
@@ -27,6 +29,9 @@ public class StaffWebController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
     @GetMapping
     public String listStaff(
             @RequestParam(defaultValue = "0") int page,
@@ -66,10 +71,12 @@ public class StaffWebController {
             if (photo != null && !photo.isEmpty()) {
                 String photoUrl = fileStorageService.storeFile(photo, "staff-photos");
                 staff.setPhotoUrl(photoUrl);
-                staff.setPhotoThumbnailUrl(photoUrl); // For simplicity, using same URL
             }
             
             Staff savedStaff = staffService.createStaff(staff);
+            if (savedStaff.getPhotoUrl() != null) {
+                imageVariantService.scheduleVariants(savedStaff.getPhotoUrl()); // Thumbnail recorded once generated
+            }
             redirectAttributes.addFlashAttribute("successMessage", 
                     "Staff member " + savedStaff.getFirstName() + " " + savedStaff.getLastName() + " created successfully");
             
@@ -142,10 +149,12 @@ public class StaffWebController {
                     
                     String photoUrl = fileStorageService.storeFile(photo, "staff-photos");
                     staff.setPhotoUrl(photoUrl);
-                    staff.setPhotoThumbnailUrl(photoUrl); // For simplicity, using same URL
                 }
                 
                 Staff updatedStaff = staffService.updateStaff(id, staff);
+                if (photo != null && !photo.isEmpty()) {
+                    imageVariantService.scheduleVariants(updatedStaff.getPhotoUrl()); // Thumbnail recorded once generated
+                }
                 redirectAttributes.addFlashAttribute("successMessage", 
                         "Staff member " + updatedStaff.getFirstName() + " " + updatedStaff.getLastName() + " updated successfully");
                 
@@ -242,14 +251,27 @@ public class StaffWebController {
             @RequestParam(required = false) String hireDateFrom,
             @RequestParam(required = false) String hireDateTo,
             @RequestParam(required = false) Boolean isActive,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
             Model model) {
         
         try {
-            List<Staff> staffList = staffService.advancedSearch(
+            Page<Staff> staffPage = staffService.advancedSearch(
                     name, department, role, minSalary, maxSalary,
-                    minRating, maxRating, hireDateFrom, hireDateTo, isActive);
+                    minRating, maxRating, hireDateFrom, hireDateTo, isActive,
+                    page, size, sortBy, direction);
+            
+            model.addAttribute("staffList", staffPage.getContent());
+            model.addAttribute("currentPage", staffPage.getNumber());
+            model.addAttribute("totalPages", staffPage.getTotalPages());
+            model.addAttribute("totalItems", staffPage.getTotalElements());
             
-            model.addAttribute("staffList", staffList);
+            // Pagination links repeat the search so page 2 is page 2 of the same results
+            model.addAttribute("pageBaseUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page")
+                    .toUriString());
             
             // Add search parameters back to model for form persistence
             model.addAttribute("searchName", name);
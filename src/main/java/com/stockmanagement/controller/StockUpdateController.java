@@ -0,0 +1,36 @@
+package com.stockmanagement.controller;
+
+import com.stockmanagement.service.StockUpdateBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Server-Sent Events channel for live stock quantities
+ */
+@RestController
+public class StockUpdateController {
+
+    @Autowired
+    private StockUpdateBroadcaster stockUpdateBroadcaster;
+
+    @GetMapping(path = "/topic/stock-updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        try {
+            return stockUpdateBroadcaster.connect();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    @GetMapping("/topic/stock-updates/metrics")
+    public Map<String, Object> metrics() {
+        return stockUpdateBroadcaster.getMetrics();
+    }
+}
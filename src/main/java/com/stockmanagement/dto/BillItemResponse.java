@@ -0,0 +1,81 @@
+package com.stockmanagement.dto;
+
+import com.stockmanagement.entity.BillItem;
+
+import java.math.BigDecimal;
+
+// BillItemResponse DTO for BillResponse
+public class BillItemResponse {
+    private Long id;
+    private ProductInfo product;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal totalPrice;
+
+    // Default constructor
+    public BillItemResponse() {}
+
+    // Constructor from BillItem entity
+    public BillItemResponse(BillItem billItem) {
+        this.id = billItem.getId();
+        this.quantity = billItem.getQuantity();
+        this.unitPrice = billItem.getUnitPrice();
+        this.totalPrice = billItem.getTotalPrice();
+
+        if (billItem.getProduct() != null) {
+            this.product = new ProductInfo(billItem.getProduct());
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ProductInfo getProduct() {
+        return product;
+    }
+
+    public void setProduct(ProductInfo product) {
+        this.product = product;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    @Override
+    public String toString() {
+        return "BillItemResponse{" +
+                "id=" + id +
+                ", product=" + product +
+                ", quantity=" + quantity +
+                ", unitPrice=" + unitPrice +
+                ", totalPrice=" + totalPrice +
+                '}';
+    }
+}
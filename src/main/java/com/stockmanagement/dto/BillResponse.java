@@ -0,0 +1,153 @@
+package com.stockmanagement.dto;
+
+import com.stockmanagement.entity.Bill;
+import com.stockmanagement.entity.BillStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Enhanced BillResponse DTO for API responses
+public class BillResponse {
+    private Long id;
+    private String billNumber;
+    private BigDecimal totalAmount;
+    private LocalDateTime billDate;
+    private BillStatus status;
+    private CustomerInfo customer;
+    private List<BillItemResponse> items;
+    private LocalDateTime createdDate;
+
+    // Default constructor
+    public BillResponse() {
+        this.items = new ArrayList<>();
+    }
+
+    // Constructor from Bill entity
+    public BillResponse(Bill bill) {
+        this();
+        this.id = bill.getId();
+        this.billNumber = bill.getBillNumber();
+        this.totalAmount = bill.getTotalAmount();
+        this.billDate = bill.getBillDate();
+        this.status = bill.getStatus();
+        this.createdDate = bill.getCreatedDate();
+
+        if (bill.getCustomer() != null) {
+            this.customer = new CustomerInfo(bill.getCustomer());
+        }
+
+        if (bill.getItems() != null) {
+            this.items = bill.getItems().stream()
+                    .map(BillItemResponse::new)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Header-only projection (no line items) used when streaming large result sets
+     */
+    public static BillResponse summaryOf(Bill bill) {
+        BillResponse response = new BillResponse();
+        response.id = bill.getId();
+        response.billNumber = bill.getBillNumber();
+        response.totalAmount = bill.getTotalAmount();
+        response.billDate = bill.getBillDate();
+        response.status = bill.getStatus();
+        response.createdDate = bill.getCreatedDate();
+
+        if (bill.getCustomer() != null) {
+            response.customer = new CustomerInfo(bill.getCustomer());
+        }
+        return response;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getBillNumber() {
+        return billNumber;
+    }
+
+    public void setBillNumber(String billNumber) {
+        this.billNumber = billNumber;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public LocalDateTime getBillDate() {
+        return billDate;
+    }
+
+    public void setBillDate(LocalDateTime billDate) {
+        this.billDate = billDate;
+    }
+
+    public BillStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BillStatus status) {
+        this.status = status;
+    }
+
+    public CustomerInfo getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(CustomerInfo customer) {
+        this.customer = customer;
+    }
+
+    public List<BillItemResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BillItemResponse> items) {
+        this.items = items != null ? items : new ArrayList<>();
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    // Helper methods
+    public void addItem(BillItemResponse item) {
+        if (this.items == null) {
+            this.items = new ArrayList<>();
+        }
+        this.items.add(item);
+    }
+
+    @Override
+    public String toString() {
+        return "BillResponse{" +
+                "id=" + id +
+                ", billNumber='" + billNumber + '\'' +
+                ", totalAmount=" + totalAmount +
+                ", billDate=" + billDate +
+                ", status=" + status +
+                ", customer=" + customer +
+                ", items=" + items +
+                ", createdDate=" + createdDate +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.stockmanagement.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One day of the sales report: bill counts and paid revenue
+public class DailySalesDTO {
+    private LocalDate date;
+    private long totalBills;
+    private long paidBills;
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    // Default constructor
+    public DailySalesDTO() {}
+
+    public DailySalesDTO(LocalDate date) {
+        this.date = date;
+    }
+
+    // Getters and Setters
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public long getTotalBills() {
+        return totalBills;
+    }
+
+    public void setTotalBills(long totalBills) {
+        this.totalBills = totalBills;
+    }
+
+    public long getPaidBills() {
+        return paidBills;
+    }
+
+    public void setPaidBills(long paidBills) {
+        this.paidBills = paidBills;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
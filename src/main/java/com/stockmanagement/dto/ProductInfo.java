@@ -0,0 +1,65 @@
+package com.stockmanagement.dto;
+
+import com.stockmanagement.entity.Product;
+
+// ProductInfo DTO for BillItemResponse
+public class ProductInfo {
+    private Long id;
+    private String name;
+    private String description;
+    private String sku;
+
+    // Default constructor
+    public ProductInfo() {}
+
+    // Constructor from Product entity
+    public ProductInfo(Product product) {
+        this.id = product.getId();
+        this.name = product.getName();
+        //this.description = product.getDescription();
+        this.sku = product.getSku();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductInfo{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                //", description='" + description + '\'' +
+                ", sku='" + sku + '\'' +
+                '}';
+    }
+}
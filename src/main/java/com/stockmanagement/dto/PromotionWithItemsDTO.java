@@ -13,6 +13,8 @@ public class PromotionWithItemsDTO {
     private LocalDate endDate;
     private Boolean active;
     private Set<Item> items = new HashSet<>();
+    // Set by PromotionService from the activation index; computed from the dates when absent
+    private Boolean currentlyActive;
     
     // Default constructor
     public PromotionWithItemsDTO() {
@@ -99,7 +101,14 @@ public class PromotionWithItemsDTO {
         this.items = items;
     }
     
+    public void setCurrentlyActive(Boolean currentlyActive) {
+        this.currentlyActive = currentlyActive;
+    }
+    
     public boolean isCurrentlyActive() {
+        if (currentlyActive != null) {
+            return currentlyActive;
+        }
         if (active == null || !active) {
             return false;
         }
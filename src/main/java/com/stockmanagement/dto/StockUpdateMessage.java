@@ -0,0 +1,107 @@
+package com.stockmanagement.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact stock delta pushed to dashboards on /topic/stock-updates.
+ * Values are read back from the item table when the message is built, and version increases
+ * with every read, so a higher version always carries newer committed state and clients can
+ * ignore stale or repeated messages. details is only set when more than the quantity changed
+ * (a new item or a form edit); deleted marks an item that no longer exists.
+ */
+public class StockUpdateMessage {
+    private final Long itemId;
+    private final int quantity;
+    private final long version;
+    private final boolean deleted;
+    private final Details details;
+
+    public StockUpdateMessage(Long itemId, int quantity, long version) {
+        this(itemId, quantity, version, false, null);
+    }
+
+    private StockUpdateMessage(Long itemId, int quantity, long version, boolean deleted, Details details) {
+        this.itemId = itemId;
+        this.quantity = quantity;
+        this.version = version;
+        this.deleted = deleted;
+        this.details = details;
+    }
+
+    public static StockUpdateMessage withDetails(Long itemId, int quantity, long version, Details details) {
+        return new StockUpdateMessage(itemId, quantity, version, false, details);
+    }
+
+    public static StockUpdateMessage removed(Long itemId, long version) {
+        return new StockUpdateMessage(itemId, 0, version, true, null);
+    }
+
+    /**
+     * This message, still carrying the details of an earlier one it replaces in a send buffer
+     */
+    public StockUpdateMessage keepingDetailsOf(StockUpdateMessage earlier) {
+        if (deleted || details != null || earlier.details == null) {
+            return this;
+        }
+        return new StockUpdateMessage(itemId, quantity, version, false, earlier.details);
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public Details getDetails() {
+        return details;
+    }
+
+    /**
+     * The item fields the dashboard shows besides the quantity
+     */
+    public static class Details {
+        private final String name;
+        private final String sku;
+        private final String category;
+        private final BigDecimal price;
+        private final String description;
+
+        public Details(String name, String sku, String category, BigDecimal price, String description) {
+            this.name = name;
+            this.sku = sku;
+            this.category = category;
+            this.price = price;
+            this.description = description;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -139,8 +139,11 @@ public class Discount {
     // Helper methods
     
     public boolean isCurrentlyActive() {
-        LocalDate today = LocalDate.now();
-        return active && !today.isBefore(startDate) && !today.isAfter(endDate);
+        return isActiveOn(LocalDate.now());
+    }
+    
+    public boolean isActiveOn(LocalDate date) {
+        return Boolean.TRUE.equals(active) && !date.isBefore(startDate) && !date.isAfter(endDate);
     }
     
     public double getDiscountedPrice(double originalPrice) {
@@ -159,7 +162,13 @@ public class Discount {
         if (!isCurrentlyActive()) {
             return originalPrice;
         }
-        
+        return applyTo(originalPrice);
+    }
+    
+    /**
+     * Price after this discount, without checking whether it is active
+     */
+    public java.math.BigDecimal applyTo(java.math.BigDecimal originalPrice) {
         java.math.BigDecimal valueBD = java.math.BigDecimal.valueOf(value);
         
         if (type == DiscountType.PERCENTAGE) {
@@ -47,6 +47,10 @@ public class Item {
     @JsonIgnore
     @OneToMany(mappedBy = "item", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Discount> discounts = new ArrayList<>();
+    
+    // Today's discounted price, filled in by the service layer (see ItemCatalogCache)
+    @Transient
+    private BigDecimal currentPrice;
 
     public Item() {
         this.createdDate = LocalDateTime.now();
@@ -126,7 +130,11 @@ public class Item {
     }
     
     public BigDecimal getCurrentPrice() {
-        // Apply active discounts (using the highest discount only)
+        if (currentPrice != null) {
+            return currentPrice;
+        }
+        
+        // Not resolved by a service: apply active discounts (using the highest discount only)
         BigDecimal maxDiscount = BigDecimal.ZERO;
         
         for (Discount discount : discounts) {
@@ -143,6 +151,10 @@ public class Item {
         return finalPrice.max(BigDecimal.ZERO);
     }
     
+    public void setCurrentPrice(BigDecimal currentPrice) {
+        this.currentPrice = currentPrice;
+    }
+    
     public int getPromotionCount() {
         return promotions != null ? (int) promotions.stream().filter(p -> p.isActive()).count() : 0;
     }
@@ -126,8 +126,12 @@ public class Promotion {
     }
     
     public boolean isCurrentlyActive() {
-        LocalDate today = LocalDate.now();
-        return active && !today.isBefore(startDate) && !today.isAfter(endDate);
+        return isActiveOn(LocalDate.now());
+    }
+    
+    public boolean isActiveOn(LocalDate date) {
+        return isActive() && startDate != null && endDate != null
+                && !date.isBefore(startDate) && !date.isAfter(endDate);
     }
     
     public boolean isActive() {
@@ -17,6 +17,18 @@ public class Supplier {
 
     public Supplier() {}
 
+    /**
+     * Detached copy, for values kept in a cache
+     */
+    public Supplier(Supplier source) {
+        this.id = source.id;
+        this.name = source.name;
+        this.address = source.address;
+        this.contactNo = source.contactNo;
+        this.email = source.email;
+        this.rating = source.rating;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
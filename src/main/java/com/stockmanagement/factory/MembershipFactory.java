@@ -13,6 +13,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class MembershipFactory {
     
+    // Membership levels are stateless, so one shared instance per level is enough
+    private static final MembershipLevel STANDARD = new StandardMembership();
+    private static final MembershipLevel SILVER = new SilverMembership();
+    private static final MembershipLevel GOLD = new GoldMembership();
+    private static final MembershipLevel PLATINUM = new PlatinumMembership();
+    
     /**
      * Create a MembershipLevel object based on the level name
      * @param levelName The membership level name ("Standard", "Silver", "Gold", "Platinum")
@@ -28,13 +34,13 @@ public class MembershipFactory {
         
         switch (normalizedLevel) {
             case "standard":
-                return new StandardMembership();
+                return STANDARD;
             case "silver":
-                return new SilverMembership();
+                return SILVER;
             case "gold":
-                return new GoldMembership();
+                return GOLD;
             case "platinum":
-                return new PlatinumMembership();
+                return PLATINUM;
             default:
                 throw new IllegalArgumentException(
                     "Invalid membership level: " + levelName + 
@@ -55,13 +61,13 @@ public class MembershipFactory {
         }
         
         if (totalSpending >= 10000) {
-            return new PlatinumMembership();
+            return PLATINUM;
         } else if (totalSpending >= 5000) {
-            return new GoldMembership();
+            return GOLD;
         } else if (totalSpending >= 1000) {
-            return new SilverMembership();
+            return SILVER;
         } else {
-            return new StandardMembership();
+            return STANDARD;
         }
     }
     
@@ -0,0 +1,10 @@
+package com.stockmanagement.observer;
+
+/**
+ * Where an observer wants to be notified.
+ * SYNC: on the thread that changed the stock, before the update returns
+ * ASYNC: in the background, through the observer's own queue
+ */
+public enum DeliveryAffinity {
+    SYNC, ASYNC
+}
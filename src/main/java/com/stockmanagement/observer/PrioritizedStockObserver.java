@@ -0,0 +1,58 @@
+package com.stockmanagement.observer;
+
+import com.stockmanagement.observer.dispatch.BackpressurePolicy;
+
+/**
+ * Stock observer that declares its notification order, delivery thread and, optionally, what
+ * its queue does when full. Observers that only implement StockObserver get priority 0,
+ * ASYNC delivery and the configured default backpressure policy.
+ */
+public interface PrioritizedStockObserver extends StockObserver {
+
+    /**
+     * Higher priorities are notified first; equal priorities keep registration order
+     * @return Observer priority
+     */
+    default int getPriority() {
+        return 0;
+    }
+
+    /**
+     * @return Whether the observer runs on the publishing thread or in the background
+     */
+    default DeliveryAffinity getDeliveryAffinity() {
+        return DeliveryAffinity.ASYNC;
+    }
+
+    /**
+     * Policy for this observer's queue when it is full; null uses stock.observers.backpressure.
+     * A stock.observers.{name}.backpressure property still overrides it.
+     * @return Preferred backpressure policy, or null
+     */
+    default BackpressurePolicy getBackpressurePolicy() {
+        return null;
+    }
+
+    /**
+     * Called when this observer's queue was full and had to discard changes. Runs on the
+     * publishing thread while the queue is locked, so it must only record the fact.
+     * @param count Number of changes discarded
+     */
+    default void onChangesDropped(int count) {
+    }
+
+    static int priorityOf(StockObserver observer) {
+        return observer instanceof PrioritizedStockObserver prioritized ? prioritized.getPriority() : 0;
+    }
+
+    static DeliveryAffinity affinityOf(StockObserver observer) {
+        return observer instanceof PrioritizedStockObserver prioritized
+                ? prioritized.getDeliveryAffinity() : DeliveryAffinity.ASYNC;
+    }
+
+    static BackpressurePolicy backpressureOf(StockObserver observer, BackpressurePolicy fallback) {
+        BackpressurePolicy policy = observer instanceof PrioritizedStockObserver prioritized
+                ? prioritized.getBackpressurePolicy() : null;
+        return policy != null ? policy : fallback;
+    }
+}
@@ -0,0 +1,163 @@
+package com.stockmanagement.observer;
+
+import com.stockmanagement.entity.Item;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable record of one item's stock moving from oldQuantity to newQuantity.
+ * Holds plain values rather than the Item entity so it can safely cross threads and outlive the session.
+ * Besides stock movements it also records items being created, edited (oldPrice holds the price
+ * before the edit) and removed, so aggregates over the item table can follow every write.
+ */
+public final class StockChange {
+
+    /**
+     * ADJUSTED: an existing item's stock or details changed
+     * CREATED: the item did not exist before (oldQuantity is 0)
+     * REMOVED: the item no longer exists (newQuantity is 0)
+     */
+    public enum Kind {
+        ADJUSTED, CREATED, REMOVED
+    }
+
+    private final Long itemId;
+    private final String itemName;
+    private final String category;
+    private final String sku;
+    private final BigDecimal price;
+    private final BigDecimal oldPrice;
+    private final int oldQuantity;
+    private final int newQuantity;
+    private final Kind kind;
+    private final LocalDateTime changedAt;
+
+    public StockChange(Long itemId, String itemName, String category, String sku, BigDecimal price,
+                       int oldQuantity, int newQuantity, LocalDateTime changedAt) {
+        this(itemId, itemName, category, sku, price, price, oldQuantity, newQuantity, Kind.ADJUSTED, changedAt);
+    }
+
+    public StockChange(Long itemId, String itemName, String category, String sku, BigDecimal price,
+                       BigDecimal oldPrice, int oldQuantity, int newQuantity, Kind kind, LocalDateTime changedAt) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.category = category;
+        this.sku = sku;
+        this.price = price;
+        this.oldPrice = oldPrice;
+        this.oldQuantity = oldQuantity;
+        this.newQuantity = newQuantity;
+        this.kind = kind;
+        this.changedAt = changedAt;
+    }
+
+    public static StockChange of(Item item, int oldQuantity, int newQuantity) {
+        return new StockChange(item.getId(), item.getName(), item.getCategory(), item.getSku(), item.getPrice(),
+                oldQuantity, newQuantity, LocalDateTime.now());
+    }
+
+    /**
+     * An item saved over a previous row that had oldQuantity units at oldPrice
+     */
+    public static StockChange edited(Item item, int oldQuantity, BigDecimal oldPrice) {
+        return new StockChange(item.getId(), item.getName(), item.getCategory(), item.getSku(), item.getPrice(),
+                oldPrice, oldQuantity, quantityOf(item), Kind.ADJUSTED, LocalDateTime.now());
+    }
+
+    public static StockChange created(Item item) {
+        return new StockChange(item.getId(), item.getName(), item.getCategory(), item.getSku(), item.getPrice(),
+                item.getPrice(), 0, quantityOf(item), Kind.CREATED, LocalDateTime.now());
+    }
+
+    public static StockChange removed(Item item) {
+        return new StockChange(item.getId(), item.getName(), item.getCategory(), item.getSku(), item.getPrice(),
+                item.getPrice(), quantityOf(item), 0, Kind.REMOVED, LocalDateTime.now());
+    }
+
+    private static int quantityOf(Item item) {
+        return item.getQuantity() != null ? item.getQuantity() : 0;
+    }
+
+    /**
+     * Combine with a later change to the same item: keeps this old quantity and price, takes everything else
+     * from later. An item created and then changed stays CREATED; anything followed by a removal is REMOVED.
+     */
+    public StockChange mergedWith(StockChange later) {
+        Kind merged = later.kind == Kind.REMOVED || kind != Kind.CREATED ? later.kind : Kind.CREATED;
+        return new StockChange(later.itemId, later.itemName, later.category, later.sku, later.price,
+                oldPrice, oldQuantity, later.newQuantity, merged, later.changedAt);
+    }
+
+    /**
+     * Detached Item carrying this change's values, for observers that work with Item
+     */
+    public Item toItem() {
+        Item item = new Item(itemId, itemName, newQuantity, price, category);
+        item.setSku(sku);
+        return item;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public BigDecimal getOldPrice() {
+        return oldPrice;
+    }
+
+    public int getOldQuantity() {
+        return oldQuantity;
+    }
+
+    public int getNewQuantity() {
+        return newQuantity;
+    }
+
+    public int getDelta() {
+        return newQuantity - oldQuantity;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * A quantity movement of an item that exists before and after the change
+     */
+    public boolean isStockMovement() {
+        return kind == Kind.ADJUSTED && newQuantity != oldQuantity;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StockChange{" +
+                "itemId=" + itemId +
+                ", itemName='" + itemName + '\'' +
+                ", oldQuantity=" + oldQuantity +
+                ", newQuantity=" + newQuantity +
+                ", kind=" + kind +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
@@ -0,0 +1,39 @@
+package com.stockmanagement.observer;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stock changes published together, typically everything one transaction changed.
+ * Holds at most one change per item.
+ */
+public final class StockChangeBatch {
+    private final List<StockChange> changes;
+    private final LocalDateTime publishedAt;
+
+    public StockChangeBatch(List<StockChange> changes) {
+        this.changes = Collections.unmodifiableList(changes);
+        this.publishedAt = LocalDateTime.now();
+    }
+
+    public static StockChangeBatch of(StockChange change) {
+        return new StockChangeBatch(List.of(change));
+    }
+
+    public List<StockChange> getChanges() {
+        return changes;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+}
@@ -0,0 +1,51 @@
+package com.stockmanagement.observer;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Gathers the stock changes made inside a transaction and publishes them as one
+ * StockChangeBatch after the transaction commits. Several changes to the same item are
+ * coalesced into one. Changes of a rolled-back transaction are discarded, and changes made
+ * outside a transaction are published immediately as a single-change batch.
+ */
+public class StockChangeCollector {
+
+    // Per-collector key for the transaction-bound buffer
+    private final Object resourceKey = new Object();
+    private final Consumer<StockChangeBatch> publisher;
+
+    public StockChangeCollector(Consumer<StockChangeBatch> publisher) {
+        this.publisher = publisher;
+    }
+
+    public void add(StockChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publisher.accept(StockChangeBatch.of(change));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, StockChange> pending = (Map<Long, StockChange>) TransactionSynchronizationManager.getResource(resourceKey);
+        if (pending == null) {
+            Map<Long, StockChange> buffer = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(resourceKey, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+                    if (status == STATUS_COMMITTED && !buffer.isEmpty()) {
+                        publisher.accept(new StockChangeBatch(new ArrayList<>(buffer.values())));
+                    }
+                }
+            });
+            pending = buffer;
+        }
+        pending.merge(change.getItemId(), change, StockChange::mergedWith);
+    }
+}
@@ -2,6 +2,8 @@ package com.stockmanagement.observer;
 
 import com.stockmanagement.entity.Item;
 
+import java.util.List;
+
 /**
  * Observer interface for stock change notifications
  * Observer Pattern - Observer Interface
@@ -16,6 +18,20 @@ public interface StockObserver {
      */
     void onStockChange(Item item, int oldQuantity, int newQuantity);
     
+    /**
+     * Called with a batch of stock changes, e.g. all lines of one committed bill.
+     * Override to handle the batch in bulk; by default each quantity movement goes to onStockChange,
+     * while item creations, removals and edits that leave the quantity alone are skipped.
+     * @param changes Stock changes in the order they were published
+     */
+    default void onStockChanges(List<StockChange> changes) {
+        for (StockChange change : changes) {
+            if (change.isStockMovement()) {
+                onStockChange(change.toItem(), change.getOldQuantity(), change.getNewQuantity());
+            }
+        }
+    }
+    
     /**
      * Get observer name for logging and identification
      * @return Observer name
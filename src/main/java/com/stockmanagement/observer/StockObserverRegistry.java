@@ -0,0 +1,81 @@
+package com.stockmanagement.observer;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free copy-on-write set of stock observers.
+ * Register/remove build a new array sorted by priority and swap it in with a CAS;
+ * notification reads the current array as is, without locking, copying or allocating.
+ * Registration is rare and notification is hot, so copying on write is the cheap side.
+ */
+public class StockObserverRegistry {
+
+    private static final StockObserver[] EMPTY = new StockObserver[0];
+
+    // Stable sort: equal priorities keep registration order
+    private static final Comparator<StockObserver> BY_PRIORITY =
+            Comparator.comparingInt(PrioritizedStockObserver::priorityOf).reversed();
+
+    private final AtomicReference<StockObserver[]> observers = new AtomicReference<>(EMPTY);
+
+    /**
+     * Add an observer if it is not registered yet
+     * @return true if the observer was added
+     */
+    public boolean register(StockObserver observer) {
+        while (true) {
+            StockObserver[] current = observers.get();
+            if (indexOf(current, observer) >= 0) {
+                return false;
+            }
+            StockObserver[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = observer;
+            Arrays.sort(updated, BY_PRIORITY);
+            if (observers.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Remove an observer
+     * @return true if the observer was registered
+     */
+    public boolean remove(StockObserver observer) {
+        while (true) {
+            StockObserver[] current = observers.get();
+            int index = indexOf(current, observer);
+            if (index < 0) {
+                return false;
+            }
+            StockObserver[] updated = new StockObserver[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            if (observers.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Current observers in notification order. The array is shared and must not be modified.
+     */
+    public StockObserver[] snapshot() {
+        return observers.get();
+    }
+
+    public int size() {
+        return observers.get().length;
+    }
+
+    private static int indexOf(StockObserver[] array, StockObserver observer) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i].equals(observer)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
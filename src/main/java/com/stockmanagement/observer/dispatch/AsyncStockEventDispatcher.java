@@ -0,0 +1,369 @@
+package com.stockmanagement.observer.dispatch;
+
+import com.stockmanagement.observer.DeliveryAffinity;
+import com.stockmanagement.observer.PrioritizedStockObserver;
+import com.stockmanagement.observer.StockChange;
+import com.stockmanagement.observer.StockChangeBatch;
+import com.stockmanagement.observer.StockObserver;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers stock changes through one bounded queue per observer, each drained by its own
+ * virtual thread. The publishing thread only enqueues, so a slow observer (logging, email)
+ * no longer adds to checkout latency, and one slow observer cannot hold up the others.
+ * A worker hands everything waiting in its queue (up to max-batch) to onStockChanges at once.
+ * Observers with SYNC delivery affinity are still called inline, in priority order.
+ *
+ * Configuration:
+ *   stock.observers.queue-capacity      - queue size per observer (default 1024)
+ *   stock.observers.max-batch           - most changes handed to an observer per call (default 256)
+ *   stock.observers.backpressure        - default policy when a queue is full (default DROP), unless
+ *                                         the observer declares its own
+ *   stock.observers.{name}.backpressure - policy override for one observer, e.g. AuditLogObserver
+ */
+@Component
+@ConditionalOnProperty(name = "stock.observers.dispatch", havingValue = "async", matchIfMissing = true)
+public class AsyncStockEventDispatcher implements StockEventDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncStockEventDispatcher.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${stock.observers.queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${stock.observers.max-batch:256}")
+    private int maxBatch;
+
+    @Value("${stock.observers.backpressure:DROP}")
+    private BackpressurePolicy defaultPolicy;
+
+    private final Map<StockObserver, ObserverChannel> channels = new ConcurrentHashMap<>();
+
+    // Failure counts for SYNC-affinity observers, which have no channel
+    private final Map<String, LongAdder> inlineFailures = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(StockObserver observer) {
+        if (PrioritizedStockObserver.affinityOf(observer) == DeliveryAffinity.SYNC) {
+            inlineFailures.putIfAbsent(observer.getObserverName(), new LongAdder());
+            return;
+        }
+        channels.computeIfAbsent(observer, o -> {
+            BackpressurePolicy policy = environment.getProperty(
+                    "stock.observers." + o.getObserverName() + ".backpressure", BackpressurePolicy.class,
+                    PrioritizedStockObserver.backpressureOf(o, defaultPolicy));
+            ObserverChannel channel = new ObserverChannel(o, policy, queueCapacity, maxBatch);
+            channel.start();
+            logger.info("Started async delivery for {} (policy: {}, capacity: {})",
+                    o.getObserverName(), policy, queueCapacity);
+            return channel;
+        });
+    }
+
+    @Override
+    public void unregister(StockObserver observer) {
+        inlineFailures.remove(observer.getObserverName());
+        ObserverChannel channel = channels.remove(observer);
+        if (channel != null) {
+            channel.stop();
+        }
+    }
+
+    @Override
+    public void dispatch(StockObserver[] observers, StockChangeBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (StockObserver observer : observers) {
+            if (PrioritizedStockObserver.affinityOf(observer) == DeliveryAffinity.SYNC) {
+                deliverInline(observer, batch);
+                continue;
+            }
+            ObserverChannel channel = channels.get(observer);
+            if (channel == null) {
+                // Unregistered since the caller took its observer snapshot
+                continue;
+            }
+            channel.offer(batch.getChanges(), now);
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getMetrics() {
+        Map<String, Map<String, Object>> metrics = new LinkedHashMap<>();
+        for (ObserverChannel channel : channels.values()) {
+            metrics.put(channel.observer.getObserverName(), channel.metrics());
+        }
+        for (Map.Entry<String, LongAdder> entry : inlineFailures.entrySet()) {
+            Map<String, Object> observerMetrics = new LinkedHashMap<>();
+            observerMetrics.put("policy", DeliveryAffinity.SYNC.name());
+            observerMetrics.put("failed", entry.getValue().sum());
+            metrics.put(entry.getKey(), observerMetrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * Stop all workers, letting each deliver what is already queued
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (ObserverChannel channel : channels.values()) {
+            channel.stop();
+        }
+        channels.clear();
+    }
+
+    private void deliverInline(StockObserver observer, StockChangeBatch batch) {
+        try {
+            observer.onStockChanges(batch.getChanges());
+        } catch (Exception e) {
+            inlineFailures.computeIfAbsent(observer.getObserverName(), name -> new LongAdder()).increment();
+            logger.error("Error in observer {}", observer.getObserverName(), e);
+        }
+    }
+
+    /**
+     * A stock change waiting in an observer queue
+     */
+    private static final class PendingChange {
+        private StockChange change;
+        private final long enqueuedAtNanos;
+
+        private PendingChange(StockChange change, long enqueuedAtNanos) {
+            this.change = change;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+    }
+
+    /**
+     * Bounded queue plus worker thread for a single observer
+     */
+    private static final class ObserverChannel {
+        private final StockObserver observer;
+        private final BackpressurePolicy policy;
+        private final int capacity;
+        private final int maxBatch;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+        private final ArrayDeque<PendingChange> queue = new ArrayDeque<>();
+        // Only used by COALESCE: the queued change for each item id
+        private final Map<Long, PendingChange> pendingByItem = new HashMap<>();
+
+        private final LongAdder enqueued = new LongAdder();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final AtomicLong lastLagNanos = new AtomicLong();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+
+        private volatile boolean running = true;
+        private Thread worker;
+
+        private ObserverChannel(StockObserver observer, BackpressurePolicy policy, int capacity, int maxBatch) {
+            this.observer = observer;
+            this.policy = policy;
+            this.capacity = capacity;
+            this.maxBatch = Math.max(1, maxBatch);
+        }
+
+        private void start() {
+            worker = Thread.ofVirtual()
+                    .name("stock-observer-" + observer.getObserverName())
+                    .start(this::drain);
+        }
+
+        private void stop() {
+            lock.lock();
+            try {
+                running = false;
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void offer(List<StockChange> changes, long now) {
+            lock.lock();
+            try {
+                for (StockChange change : changes) {
+                    if (!offerOne(change, now)) {
+                        // Stopped or interrupted: the rest of the batch cannot be queued either
+                        return;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Queue one change; the lock must be held
+         * @return false if the channel stopped or the caller was interrupted while blocked
+         */
+        private boolean offerOne(StockChange change, long now) {
+            if (!running) {
+                dropped.increment();
+                return false;
+            }
+            boolean coalesce = policy == BackpressurePolicy.COALESCE && change.getItemId() != null;
+            if (coalesce) {
+                PendingChange pending = pendingByItem.get(change.getItemId());
+                if (pending != null) {
+                    // Keep the first old quantity, take the latest item state and new quantity
+                    pending.change = pending.change.mergedWith(change);
+                    coalesced.increment();
+                    return true;
+                }
+            }
+            while (queue.size() >= capacity) {
+                if (policy != BackpressurePolicy.BLOCK) {
+                    dropped.increment();
+                    if (observer instanceof PrioritizedStockObserver prioritized) {
+                        prioritized.onChangesDropped(1);
+                    }
+                    return true;
+                }
+                try {
+                    notFull.await();
+                } catch (InterruptedException e) {
+                    dropped.increment();
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                if (!running) {
+                    dropped.increment();
+                    return false;
+                }
+            }
+            PendingChange pending = new PendingChange(change, now);
+            queue.addLast(pending);
+            if (coalesce) {
+                pendingByItem.put(change.getItemId(), pending);
+            }
+            enqueued.increment();
+            notEmpty.signal();
+            return true;
+        }
+
+        /**
+         * Wait for at least one change, then take up to maxBatch of them
+         * @return Changes to deliver, or null once stopped and drained
+         */
+        private List<PendingChange> takeBatch() throws InterruptedException {
+            lock.lock();
+            try {
+                while (queue.isEmpty()) {
+                    if (!running) {
+                        return null;
+                    }
+                    notEmpty.await();
+                }
+                List<PendingChange> batch = new ArrayList<>(Math.min(queue.size(), maxBatch));
+                while (!queue.isEmpty() && batch.size() < maxBatch) {
+                    PendingChange pending = queue.pollFirst();
+                    if (pending.change.getItemId() != null) {
+                        pendingByItem.remove(pending.change.getItemId(), pending);
+                    }
+                    batch.add(pending);
+                }
+                notFull.signalAll();
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void drain() {
+            try {
+                List<PendingChange> batch;
+                while ((batch = takeBatch()) != null) {
+                    deliver(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void deliver(List<PendingChange> batch) {
+            // Taken out of the queue under the lock, so no coalescing offer can touch these any more
+            List<StockChange> changes = new ArrayList<>(batch.size());
+            for (PendingChange pending : batch) {
+                changes.add(pending.change);
+            }
+            try {
+                observer.onStockChanges(changes);
+                delivered.add(changes.size());
+                batches.increment();
+            } catch (Exception e) {
+                failed.add(changes.size());
+                logger.error("Error in observer {}", observer.getObserverName(), e);
+            }
+            long lag = System.nanoTime() - batch.get(0).enqueuedAtNanos;
+            lastLagNanos.set(lag);
+            maxLagNanos.accumulateAndGet(lag, Math::max);
+        }
+
+        private Map<String, Object> metrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            long oldestAgeNanos = 0;
+            int depth;
+            lock.lock();
+            try {
+                depth = queue.size();
+                PendingChange head = queue.peekFirst();
+                if (head != null) {
+                    oldestAgeNanos = System.nanoTime() - head.enqueuedAtNanos;
+                }
+            } finally {
+                lock.unlock();
+            }
+            metrics.put("policy", policy.name());
+            metrics.put("capacity", capacity);
+            metrics.put("queueDepth", depth);
+            metrics.put("enqueued", enqueued.sum());
+            metrics.put("delivered", delivered.sum());
+            metrics.put("batches", batches.sum());
+            metrics.put("dropped", dropped.sum());
+            metrics.put("coalesced", coalesced.sum());
+            metrics.put("failed", failed.sum());
+            metrics.put("oldestPendingMs", TimeUnit.NANOSECONDS.toMillis(oldestAgeNanos));
+            metrics.put("lastLagMs", TimeUnit.NANOSECONDS.toMillis(lastLagNanos.get()));
+            metrics.put("maxLagMs", TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get()));
+            return metrics;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.stockmanagement.observer.dispatch;
+
+/**
+ * What an observer queue does when it is full.
+ * DROP: discard the new change and count it
+ * BLOCK: make the publishing thread wait for space
+ * COALESCE: merge changes for the same item into one pending change; drop only if the item is not already queued
+ */
+public enum BackpressurePolicy {
+    DROP, BLOCK, COALESCE
+}
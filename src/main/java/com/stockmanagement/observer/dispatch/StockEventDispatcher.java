@@ -0,0 +1,37 @@
+package com.stockmanagement.observer.dispatch;
+
+import com.stockmanagement.observer.StockChangeBatch;
+import com.stockmanagement.observer.StockObserver;
+
+import java.util.Map;
+
+/**
+ * Strategy for delivering stock change notifications to observers.
+ * Lets the subject stay the same whether observers run on the caller's thread or in the background.
+ */
+public interface StockEventDispatcher {
+
+    /**
+     * Prepare delivery resources (queues, workers) for an observer
+     * @param observer Observer that was registered with the subject
+     */
+    void register(StockObserver observer);
+
+    /**
+     * Release delivery resources for an observer
+     * @param observer Observer that was removed from the subject
+     */
+    void unregister(StockObserver observer);
+
+    /**
+     * Deliver a batch of stock changes to the given observers
+     * @param observers Observers to notify, in priority order (shared snapshot, must not be modified)
+     * @param batch Changes to deliver
+     */
+    void dispatch(StockObserver[] observers, StockChangeBatch batch);
+
+    /**
+     * Delivery statistics per observer name (queue depth, lag, drops...)
+     */
+    Map<String, Map<String, Object>> getMetrics();
+}
@@ -0,0 +1,69 @@
+package com.stockmanagement.observer.dispatch;
+
+import com.stockmanagement.observer.StockChangeBatch;
+import com.stockmanagement.observer.StockObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calls every observer on the publishing thread, in registration order.
+ * Enable with stock.observers.dispatch=sync (useful for debugging and tests).
+ */
+@Component
+@ConditionalOnProperty(name = "stock.observers.dispatch", havingValue = "sync")
+public class SynchronousStockEventDispatcher implements StockEventDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SynchronousStockEventDispatcher.class);
+
+    private final Map<String, AtomicLong> delivered = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> failed = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(StockObserver observer) {
+        delivered.putIfAbsent(observer.getObserverName(), new AtomicLong());
+        failed.putIfAbsent(observer.getObserverName(), new AtomicLong());
+    }
+
+    @Override
+    public void unregister(StockObserver observer) {
+        delivered.remove(observer.getObserverName());
+        failed.remove(observer.getObserverName());
+    }
+
+    @Override
+    public void dispatch(StockObserver[] observers, StockChangeBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (StockObserver observer : observers) {
+            try {
+                observer.onStockChanges(batch.getChanges());
+                delivered.computeIfAbsent(observer.getObserverName(), name -> new AtomicLong()).incrementAndGet();
+            } catch (Exception e) {
+                failed.computeIfAbsent(observer.getObserverName(), name -> new AtomicLong()).incrementAndGet();
+                logger.error("Error in observer {}", observer.getObserverName(), e);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getMetrics() {
+        Map<String, Map<String, Object>> metrics = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : delivered.entrySet()) {
+            Map<String, Object> observerMetrics = new HashMap<>();
+            observerMetrics.put("policy", "SYNC");
+            observerMetrics.put("delivered", entry.getValue().get());
+            observerMetrics.put("failed", failed.getOrDefault(entry.getKey(), new AtomicLong()).get());
+            metrics.put(entry.getKey(), observerMetrics);
+        }
+        return metrics;
+    }
+}
@@ -1,36 +1,55 @@
 package com.stockmanagement.observer.impl;
 
 import com.stockmanagement.entity.Item;
-import com.stockmanagement.observer.StockObserver;
+import com.stockmanagement.observer.PrioritizedStockObserver;
+import com.stockmanagement.observer.StockChange;
+import com.stockmanagement.observer.dispatch.BackpressurePolicy;
+import com.stockmanagement.service.AuditLogWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * Observer that logs all stock changes to audit trail
  * Observer Pattern - Concrete Observer
  */
 @Component
-public class AuditLogObserver implements StockObserver {
+public class AuditLogObserver implements PrioritizedStockObserver {
     
     private static final Logger logger = LoggerFactory.getLogger(AuditLogObserver.class);
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+    
     @Override
     public void onStockChange(Item item, int oldQuantity, int newQuantity) {
+        onStockChanges(List.of(StockChange.of(item, oldQuantity, newQuantity)));
+    }
+    
+    @Override
+    public void onStockChanges(List<StockChange> changes) {
         // Log every stock change to audit trail
-        String timestamp = LocalDateTime.now().format(formatter);
-        int change = newQuantity - oldQuantity;
-        String changeType = change > 0 ? "INCREASE" : "DECREASE";
-        
-        logToAuditTrail(timestamp, item, oldQuantity, newQuantity, change, changeType);
+        for (StockChange stockChange : changes) {
+            String timestamp = stockChange.getChangedAt().format(formatter);
+            int change = stockChange.getDelta();
+            String changeType = switch (stockChange.getKind()) {
+                case CREATED -> "CREATED";
+                case REMOVED -> "REMOVED";
+                case ADJUSTED -> change > 0 ? "INCREASE" : change < 0 ? "DECREASE" : "UNCHANGED";
+            };
+            
+            logToAuditTrail(timestamp, stockChange.toItem(), stockChange.getOldQuantity(),
+                    stockChange.getNewQuantity(), change, changeType);
+        }
         
-        // Also log to database (in production)
-        // auditService.logStockChange(item.getId(), oldQuantity, newQuantity, changeType);
+        // Persist the whole batch; the writer queues it and inserts in the background
+        writeToAuditDatabase(changes);
     }
     
     /**
@@ -68,24 +87,30 @@ public class AuditLogObserver implements StockObserver {
         }
         
         logger.info("═══════════════════════════════════════════════════════════");
-        
-        // In production: Write to audit database table
-        writeToAuditDatabase(timestamp, item, oldQuantity, newQuantity, change, changeType);
     }
     
     /**
-     * Write audit log to database (simulated)
+     * Write audit records to the audit_log table (batched, off the stock-update path)
      */
-    private void writeToAuditDatabase(String timestamp, Item item, int oldQuantity,
-                                       int newQuantity, int change, String changeType) {
-        // In production, save to audit_logs table
-        logger.debug("💾 Audit record saved to database: STOCK_CHANGE_{} for item {}", 
-                changeType, item.getId());
-        
-        // Example SQL (for reference):
-        // INSERT INTO audit_logs (timestamp, action_type, entity_type, entity_id, 
-        //                         old_value, new_value, change_amount, user_id)
-        // VALUES (?, 'STOCK_CHANGE', 'ITEM', ?, ?, ?, ?, ?);
+    private void writeToAuditDatabase(List<StockChange> changes) {
+        auditLogWriter.enqueueAll(changes);
+        logger.debug("💾 {} audit record(s) queued for the audit_log table", changes.size());
+    }
+    
+    @Override
+    public int getPriority() {
+        // Audit records come first so every change is captured
+        return 100;
+    }
+    
+    /**
+     * Audit records must not be dropped in the observer queue before they reach the writer.
+     * Handing a batch to the writer never blocks (it spills to disk when full), so the queue
+     * drains quickly and waiting for room costs the publisher little.
+     */
+    @Override
+    public BackpressurePolicy getBackpressurePolicy() {
+        return BackpressurePolicy.BLOCK;
     }
     
     @Override
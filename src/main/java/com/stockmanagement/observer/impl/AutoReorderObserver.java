@@ -1,7 +1,7 @@
 package com.stockmanagement.observer.impl;
 
 import com.stockmanagement.entity.Item;
-import com.stockmanagement.observer.StockObserver;
+import com.stockmanagement.observer.PrioritizedStockObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -13,7 +13,7 @@ import java.math.BigDecimal;
  * Observer Pattern - Concrete Observer
  */
 @Component
-public class AutoReorderObserver implements StockObserver {
+public class AutoReorderObserver implements PrioritizedStockObserver {
     
     private static final Logger logger = LoggerFactory.getLogger(AutoReorderObserver.class);
     private static final int REORDER_POINT = 10;
@@ -124,6 +124,11 @@ public class AutoReorderObserver implements StockObserver {
         logger.info("   Status:       Normal stock level maintained");
     }
     
+    @Override
+    public int getPriority() {
+        return 60;
+    }
+    
     @Override
     public String getObserverName() {
         return "AutoReorderObserver";
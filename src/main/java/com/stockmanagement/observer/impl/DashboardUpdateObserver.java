@@ -1,88 +1,49 @@
 package com.stockmanagement.observer.impl;
 
 import com.stockmanagement.entity.Item;
-import com.stockmanagement.observer.StockObserver;
+import com.stockmanagement.observer.PrioritizedStockObserver;
+import com.stockmanagement.observer.StockChange;
+import com.stockmanagement.observer.dispatch.BackpressurePolicy;
+import com.stockmanagement.service.DashboardStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Observer that updates real-time dashboard statistics
  * Observer Pattern - Concrete Observer
  */
 @Component
-public class DashboardUpdateObserver implements StockObserver {
+public class DashboardUpdateObserver implements PrioritizedStockObserver {
     
     private static final Logger logger = LoggerFactory.getLogger(DashboardUpdateObserver.class);
     
-    // Simulated dashboard statistics (in production, use cache or database)
-    private static int lowStockItemsCount = 0;
-    private static int outOfStockItemsCount = 0;
-    private static double totalInventoryValue = 0.0;
+    // Live aggregates (low stock, out of stock, inventory value), updated lock-free
+    @Autowired
+    private DashboardStatistics dashboardStatistics;
     
     @Override
     public void onStockChange(Item item, int oldQuantity, int newQuantity) {
-        // Update low stock count
-        updateLowStockCount(oldQuantity, newQuantity);
-        
-        // Update out of stock count
-        updateOutOfStockCount(oldQuantity, newQuantity);
-        
-        // Update inventory value
-        updateInventoryValue(item, oldQuantity, newQuantity);
-        
-        // Log dashboard update
-        logDashboardUpdate(item, newQuantity);
-        
-        // In production: Update cache, broadcast to WebSocket clients
-        // broadcastToWebSocket(dashboardData);
-    }
-    
-    /**
-     * Update low stock items count
-     */
-    private void updateLowStockCount(int oldQuantity, int newQuantity) {
-        // If item dropped below threshold
-        if (oldQuantity >= 5 && newQuantity < 5 && newQuantity > 0) {
-            lowStockItemsCount++;
-        }
-        // If item restocked above threshold
-        else if (oldQuantity < 5 && newQuantity >= 5) {
-            lowStockItemsCount--;
-            if (lowStockItemsCount < 0) lowStockItemsCount = 0;
-        }
+        onStockChanges(List.of(StockChange.of(item, oldQuantity, newQuantity)));
     }
     
-    /**
-     * Update out of stock items count
-     */
-    private void updateOutOfStockCount(int oldQuantity, int newQuantity) {
-        // Item just went out of stock
-        if (oldQuantity > 0 && newQuantity == 0) {
-            outOfStockItemsCount++;
-        }
-        // Item restocked
-        else if (oldQuantity == 0 && newQuantity > 0) {
-            outOfStockItemsCount--;
-            if (outOfStockItemsCount < 0) outOfStockItemsCount = 0;
+    @Override
+    public void onStockChanges(List<StockChange> changes) {
+        // Apply every change, then log the dashboard once for the whole batch
+        for (StockChange change : changes) {
+            dashboardStatistics.apply(change);
         }
-    }
-    
-    /**
-     * Update total inventory value
-     */
-    private void updateInventoryValue(Item item, int oldQuantity, int newQuantity) {
-        BigDecimal oldValue = item.getPrice().multiply(new BigDecimal(oldQuantity));
-        BigDecimal newValue = item.getPrice().multiply(new BigDecimal(newQuantity));
-        BigDecimal valueDiff = newValue.subtract(oldValue);
         
-        totalInventoryValue += valueDiff.doubleValue();
-        
-        logger.debug("💰 Inventory value changed by ${} (Total: ${})",
-                String.format("%.2f", valueDiff),
-                String.format("%.2f", totalInventoryValue));
+        if (changes.size() == 1) {
+            StockChange change = changes.get(0);
+            logDashboardUpdate(change.toItem(), change.getNewQuantity());
+        } else {
+            logger.info("📊 DASHBOARD UPDATE - {} Stock Changes", changes.size());
+            logStatistics();
+        }
     }
     
     /**
@@ -91,36 +52,37 @@ public class DashboardUpdateObserver implements StockObserver {
     private void logDashboardUpdate(Item item, int newQuantity) {
         logger.info("📊 DASHBOARD UPDATE - Stock Changed");
         logger.info("   Item: {} (Qty: {})", item.getName(), newQuantity);
+        logStatistics();
+    }
+    
+    private void logStatistics() {
         logger.info("   ┌─────────────────────────────────────────");
-        logger.info("   │ Low Stock Items:     {}", lowStockItemsCount);
-        logger.info("   │ Out of Stock Items:  {}", outOfStockItemsCount);
-        logger.info("   │ Total Inventory Value: ${}", String.format("%.2f", totalInventoryValue));
+        logger.info("   │ Low Stock Items:     {}", dashboardStatistics.getLowStockItemsCount());
+        logger.info("   │ Out of Stock Items:  {}", dashboardStatistics.getOutOfStockItemsCount());
+        logger.info("   │ Total Inventory Value: ${}", dashboardStatistics.getTotalInventoryValue().toPlainString());
         logger.info("   └─────────────────────────────────────────");
-        
-        // In production: Send real-time update via WebSocket
-        sendWebSocketUpdate(item, newQuantity);
     }
+
     
     /**
-     * Send real-time update via WebSocket (simulated)
+     * Get current dashboard statistics (for testing/debugging)
      */
-    private void sendWebSocketUpdate(Item item, int newQuantity) {
-        logger.debug("🔄 WebSocket update sent to connected clients");
-        logger.debug("   Topic: /topic/stock-updates");
-        logger.debug("   Payload: {{itemId: {}, itemName: '{}', newQuantity: {}}}",
-                item.getId(), item.getName(), newQuantity);
-        
-        // In production:
-        // messagingTemplate.convertAndSend("/topic/stock-updates", 
-        //     new StockUpdateMessage(item.getId(), item.getName(), newQuantity));
+    public String getDashboardStats() {
+        return dashboardStatistics.getDashboardStats();
+    }
+    
+    @Override
+    public int getPriority() {
+        return 40;
     }
     
     /**
-     * Get current dashboard statistics (for testing/debugging)
+     * The statistics are running totals, so a dropped change would skew them until the next
+     * reconcile. Applying a change is cheap, so waiting for room costs the publisher little.
      */
-    public static String getDashboardStats() {
-        return String.format("Low Stock: %d | Out of Stock: %d | Total Value: $%.2f",
-                lowStockItemsCount, outOfStockItemsCount, totalInventoryValue);
+    @Override
+    public BackpressurePolicy getBackpressurePolicy() {
+        return BackpressurePolicy.BLOCK;
     }
     
     @Override
@@ -1,7 +1,7 @@
 package com.stockmanagement.observer.impl;
 
 import com.stockmanagement.entity.Item;
-import com.stockmanagement.observer.StockObserver;
+import com.stockmanagement.observer.PrioritizedStockObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -13,7 +13,7 @@ import java.math.BigDecimal;
  * Observer Pattern - Concrete Observer
  */
 @Component
-public class EmailNotificationObserver implements StockObserver {
+public class EmailNotificationObserver implements PrioritizedStockObserver {
     
     private static final Logger logger = LoggerFactory.getLogger(EmailNotificationObserver.class);
     private static final int SIGNIFICANT_CHANGE_THRESHOLD = 10;
@@ -85,6 +85,12 @@ public class EmailNotificationObserver implements StockObserver {
         logger.info("   Body: Received shipment of {} units for {}", quantityAdded, item.getName());
     }
     
+    @Override
+    public int getPriority() {
+        // Slowest observer, notified last
+        return 20;
+    }
+    
     @Override
     public String getObserverName() {
         return "EmailNotificationObserver";
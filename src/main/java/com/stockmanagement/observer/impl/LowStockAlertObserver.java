@@ -1,7 +1,7 @@
 package com.stockmanagement.observer.impl;
 
 import com.stockmanagement.entity.Item;
-import com.stockmanagement.observer.StockObserver;
+import com.stockmanagement.observer.PrioritizedStockObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -11,7 +11,7 @@ import org.springframework.stereotype.Component;
  * Observer Pattern - Concrete Observer
  */
 @Component
-public class LowStockAlertObserver implements StockObserver {
+public class LowStockAlertObserver implements PrioritizedStockObserver {
     
     private static final Logger logger = LoggerFactory.getLogger(LowStockAlertObserver.class);
     private static final int LOW_STOCK_THRESHOLD = 5;
@@ -127,6 +127,12 @@ public class LowStockAlertObserver implements StockObserver {
                 item.getName(), quantity);
     }
     
+    @Override
+    public int getPriority() {
+        // Alerts go out before reorders and dashboard refreshes
+        return 80;
+    }
+    
     @Override
     public String getObserverName() {
         return "LowStockAlertObserver";
@@ -0,0 +1,63 @@
+package com.stockmanagement.observer.impl;
+
+import com.stockmanagement.entity.Item;
+import com.stockmanagement.observer.PrioritizedStockObserver;
+import com.stockmanagement.observer.StockChange;
+import com.stockmanagement.observer.dispatch.BackpressurePolicy;
+import com.stockmanagement.service.StockUpdateBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Observer that pushes stock changes to connected dashboards
+ * Observer Pattern - Concrete Observer
+ */
+@Component
+public class StockPushObserver implements PrioritizedStockObserver {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockPushObserver.class);
+
+    @Autowired
+    private StockUpdateBroadcaster stockUpdateBroadcaster;
+
+    @Override
+    public void onStockChange(Item item, int oldQuantity, int newQuantity) {
+        onStockChanges(List.of(StockChange.of(item, oldQuantity, newQuantity)));
+    }
+
+    @Override
+    public void onStockChanges(List<StockChange> changes) {
+        // Send real-time updates to dashboards subscribed to /topic/stock-updates
+        stockUpdateBroadcaster.broadcast(changes);
+        logger.debug("🔄 {} stock update(s) pushed to dashboards", changes.size());
+    }
+
+    @Override
+    public int getPriority() {
+        return 30;
+    }
+
+    /**
+     * Broadcasting re-reads the changed rows and writes to every client, so it must never hold
+     * up a commit. The broadcaster only needs the ids of changed items, which coalesce well;
+     * if changes are dropped anyway, dashboards are told to reload.
+     */
+    @Override
+    public BackpressurePolicy getBackpressurePolicy() {
+        return BackpressurePolicy.COALESCE;
+    }
+
+    @Override
+    public void onChangesDropped(int count) {
+        stockUpdateBroadcaster.markMissedChanges();
+    }
+
+    @Override
+    public String getObserverName() {
+        return "StockPushObserver";
+    }
+}
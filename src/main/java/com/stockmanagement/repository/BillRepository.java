@@ -2,33 +2,79 @@ package com.stockmanagement.repository;
 
 import com.stockmanagement.entity.Bill;
 import com.stockmanagement.entity.BillStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BillRepository extends JpaRepository<Bill, Long> {
+public interface BillRepository extends JpaRepository<Bill, Long>, JpaSpecificationExecutor<Bill> {
     Optional<Bill> findByBillNumber(String billNumber);
     List<Bill> findByCustomerId(Long customerId);
     List<Bill> findByBillDateBetween(LocalDateTime start, LocalDateTime end);
+    List<Bill> findByBillDateGreaterThanEqualAndBillDateLessThan(LocalDateTime start, LocalDateTime end);
     List<Bill> findByStatus(BillStatus status);
+
+    // Paged listing - customer is fetched in the same query to avoid one select per row
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    Page<Bill> findAll(Specification<Bill> spec, Pageable pageable);
+
+    // Keyset (seek) page: rows strictly older than the (billDate, id) cursor, newest first
+    @EntityGraph(attributePaths = "customer")
+    @Query("SELECT b FROM Bill b WHERE " +
+           "(:status IS NULL OR b.status = :status) " +
+           "AND (:startDate IS NULL OR b.billDate >= :startDate) " +
+           "AND (:endDate IS NULL OR b.billDate < :endDate) " +
+           "AND (b.billDate < :afterDate OR (b.billDate = :afterDate AND b.id < :afterId)) " +
+           "ORDER BY b.billDate DESC, b.id DESC")
+    List<Bill> findPageAfter(@Param("status") BillStatus status,
+                             @Param("startDate") LocalDateTime startDate,
+                             @Param("endDate") LocalDateTime endDate,
+                             @Param("afterDate") LocalDateTime afterDate,
+                             @Param("afterId") Long afterId,
+                             Pageable pageable);
+    
+    // Row-by-row cursor over bills with id > afterId; a fetch size of Integer.MIN_VALUE makes
+    // MySQL Connector/J stream rows instead of buffering the whole result set
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    @Query("SELECT b FROM Bill b LEFT JOIN FETCH b.customer WHERE b.id > :afterId ORDER BY b.id")
+    Stream<Bill> streamByIdAfter(@Param("afterId") Long afterId, Pageable pageable);
     
     @Query("SELECT SUM(b.totalAmount) FROM Bill b WHERE b.billDate BETWEEN :startDate AND :endDate")
     Double getTotalSalesInRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT b.billDate, SUM(b.totalAmount) FROM Bill b " +
+    @Query("SELECT CAST(b.billDate AS LocalDate), SUM(b.totalAmount) FROM Bill b " +
            "WHERE b.billDate BETWEEN :startDate AND :endDate " +
-           "GROUP BY FUNCTION('DATE', b.billDate) " +
-           "ORDER BY FUNCTION('DATE', b.billDate)")
+           "GROUP BY CAST(b.billDate AS LocalDate) " +
+           "ORDER BY CAST(b.billDate AS LocalDate)")
     List<Object[]> getDailySales(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
+    // Daily buckets per status: [date, status, billCount, totalAmount, taxAmount]
+    @Query("SELECT CAST(b.billDate AS LocalDate), b.status, COUNT(b), COALESCE(SUM(b.totalAmount), 0), COALESCE(SUM(b.taxAmount), 0) FROM Bill b " +
+           "WHERE b.billDate >= :startDate AND b.billDate < :endDate " +
+           "GROUP BY CAST(b.billDate AS LocalDate), b.status " +
+           "ORDER BY CAST(b.billDate AS LocalDate)")
+    List<Object[]> getDailySalesByStatus(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT COALESCE(SUM(b.totalAmount), 0) FROM Bill b WHERE b.status = :status")
+    BigDecimal sumTotalAmountByStatus(@Param("status") BillStatus status);
+    
     @Query("SELECT COUNT(b) FROM Bill b WHERE b.billDate >= :date")
     long countBillsAfterDate(@Param("date") LocalDateTime date);
     
@@ -0,0 +1,38 @@
+package com.stockmanagement.repository;
+
+import com.stockmanagement.entity.Bill;
+import com.stockmanagement.entity.BillStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reusable filters for bill queries, so date and status filtering runs in SQL
+ */
+public final class BillSpecifications {
+
+    private BillSpecifications() {
+    }
+
+    public static Specification<Bill> billDateFrom(LocalDateTime start) {
+        return (root, query, cb) -> start == null ? null : cb.greaterThanOrEqualTo(root.get("billDate"), start);
+    }
+
+    // Exclusive upper bound, so a whole end day is covered down to its last fraction of a second
+    public static Specification<Bill> billDateBefore(LocalDateTime end) {
+        return (root, query, cb) -> end == null ? null : cb.lessThan(root.get("billDate"), end);
+    }
+
+    public static Specification<Bill> hasStatus(BillStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Combine the optional list filters; null arguments are ignored
+     */
+    public static Specification<Bill> filter(LocalDateTime start, LocalDateTime end, BillStatus status) {
+        return Specification.where(billDateFrom(start))
+                .and(billDateBefore(end))
+                .and(hasStatus(status));
+    }
+}
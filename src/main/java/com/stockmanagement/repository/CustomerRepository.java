@@ -1,6 +1,8 @@
 package com.stockmanagement.repository;
 
 import com.stockmanagement.entity.Customer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -22,13 +24,50 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     @Query("SELECT COUNT(c) FROM Customer c WHERE c.isActive = true")
     long countActiveCustomers();
     
-    @Query("SELECT c FROM Customer c WHERE " +
+    // Ranked, paged search over the ngram FULLTEXT index; :query is a boolean-mode phrase
+    @Query(value = "SELECT c.* FROM customers c " +
+            "WHERE MATCH(c.first_name, c.last_name, c.email, c.phone, c.customer_id) AGAINST (:query IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(c.first_name, c.last_name, c.email, c.phone, c.customer_id) AGAINST (:query IN BOOLEAN MODE) DESC, c.id",
+            countQuery = "SELECT COUNT(*) FROM customers c " +
+            "WHERE MATCH(c.first_name, c.last_name, c.email, c.phone, c.customer_id) AGAINST (:query IN BOOLEAN MODE)",
+            nativeQuery = true)
+    Page<Customer> fullTextSearch(@Param("query") String query, Pageable pageable);
+    
+    // Fallback when the full-text index is missing or the term is too short for it:
+    // exact id/email first, then name prefixes, then any substring match
+    @Query(value = "SELECT c FROM Customer c WHERE " +
+            "(LOWER(c.firstName) LIKE LOWER(CONCAT('%', :search, '%')) " +
+            "OR LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')) " +
+            "OR LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) " +
+            "OR c.phone LIKE CONCAT('%', :search, '%') " +
+            "OR COALESCE(c.customerId, '') LIKE CONCAT('%', :search, '%')) " +
+            "ORDER BY CASE " +
+            "WHEN c.customerId = :search OR LOWER(c.email) = LOWER(:search) THEN 0 " +
+            "WHEN LOWER(c.lastName) LIKE LOWER(CONCAT(:search, '%')) OR LOWER(c.firstName) LIKE LOWER(CONCAT(:search, '%')) THEN 1 " +
+            "ELSE 2 END, c.lastName, c.id",
+            countQuery = "SELECT COUNT(c) FROM Customer c WHERE " +
             "(LOWER(c.firstName) LIKE LOWER(CONCAT('%', :search, '%')) " +
             "OR LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')) " +
             "OR LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) " +
             "OR c.phone LIKE CONCAT('%', :search, '%') " +
             "OR COALESCE(c.customerId, '') LIKE CONCAT('%', :search, '%'))")
-    List<Customer> searchCustomers(@Param("search") String search);
+    Page<Customer> searchCustomersRanked(@Param("search") String search, Pageable pageable);
+
+    // Customer list in (last name, id) order. The offset form serves jumps to a page number;
+    // the keyset form continues after the last row shown and reads straight off idx_customers_last_name_id
+    @Query("SELECT c FROM Customer c ORDER BY c.lastName, c.id")
+    List<Customer> findPageOrderByName(Pageable pageable);
+
+    @Query("SELECT c FROM Customer c WHERE c.lastName > :lastName OR (c.lastName = :lastName AND c.id > :id) " +
+            "ORDER BY c.lastName, c.id")
+    List<Customer> findPageAfter(@Param("lastName") String lastName, @Param("id") Long id, Pageable pageable);
+
+    // Highest number among CUSTnnn ids, used once to seed the customer id sequence
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(customer_id, 5) AS UNSIGNED)), 0) FROM customers " +
+            "WHERE customer_id REGEXP '^CUST[0-9]+$'", nativeQuery = true)
+    long findMaxCustomerNumber();
+
+    boolean existsByCustomerId(String customerId);
 
     @Query("SELECT c.membershipLevel, COUNT(c) FROM Customer c GROUP BY c.membershipLevel")
     List<Object[]> countCustomersByMembershipLevel();
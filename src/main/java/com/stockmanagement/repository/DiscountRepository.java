@@ -3,6 +3,7 @@ package com.stockmanagement.repository;
 import com.stockmanagement.entity.Discount;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -19,4 +20,11 @@ public interface DiscountRepository extends JpaRepository<Discount, Long> {
     List<Discount> findByNameContainingIgnoreCase(String keyword);
     
     List<Discount> findByItemId(Long itemId);
+    
+    // Activation rows for the interval index: [id, startDate, endDate, itemId]
+    @Query("SELECT d.id, d.startDate, d.endDate, i.id FROM Discount d LEFT JOIN d.item i WHERE d.active = true")
+    List<Object[]> findActivationRows();
+    
+    @Query("SELECT d.id, d.startDate, d.endDate, i.id FROM Discount d LEFT JOIN d.item i WHERE d.active = true AND d.id = :id")
+    List<Object[]> findActivationRowsById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -2,9 +2,14 @@ package com.stockmanagement.repository;
 
 
 import com.stockmanagement.entity.Item;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +17,19 @@ import java.util.Optional;
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAll();
     Optional<Item> findById(Long id);
+
+    // Items with their discounts in one query, for the catalog cache
+    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.discounts")
+    List<Item> findAllWithDiscounts();
+
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.discounts WHERE i.id = :id")
+    Optional<Item> findByIdWithDiscounts(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.discounts WHERE i.id IN :ids")
+    List<Item> findAllByIdWithDiscounts(@Param("ids") Collection<Long> ids);
+
+    // Row lock for read-modify-write of one item (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
 }
\ No newline at end of file
@@ -1,12 +1,16 @@
 package com.stockmanagement.repository;
 
 import com.stockmanagement.entity.Promotion;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PromotionRepository extends JpaRepository<Promotion, Long> {
@@ -20,4 +24,19 @@ public interface PromotionRepository extends JpaRepository<Promotion, Long> {
     
     @Query("SELECT p FROM Promotion p JOIN p.items i WHERE i.id = ?1")
     List<Promotion> findByItemId(Long itemId);
+    
+    // Activation rows for the interval index, one per promotion item: [id, startDate, endDate, itemId]
+    @Query("SELECT p.id, p.startDate, p.endDate, i.id FROM Promotion p LEFT JOIN p.items i WHERE p.active = true")
+    List<Object[]> findActivationRows();
+    
+    @Query("SELECT p.id, p.startDate, p.endDate, i.id FROM Promotion p LEFT JOIN p.items i WHERE p.active = true AND p.id = :id")
+    List<Object[]> findActivationRowsById(@Param("id") Long id);
+    
+    // Item ids of many promotions in one query: [promotionId, itemId]
+    @Query("SELECT p.id, i.id FROM Promotion p JOIN p.items i WHERE p.id IN :ids")
+    List<Object[]> findItemIdsByPromotionIds(@Param("ids") Collection<Long> ids);
+    
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT p FROM Promotion p WHERE p.id = :id")
+    Optional<Promotion> findByIdWithItems(@Param("id") Long id);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.stockmanagement.repository;
 
 import com.stockmanagement.entity.Staff;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,7 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StaffRepository extends JpaRepository<Staff, Long> {
+public interface StaffRepository extends JpaRepository<Staff, Long>, JpaSpecificationExecutor<Staff> {
     Optional<Staff> findByEmployeeId(String employeeId);
     Optional<Staff> findByEmail(String email);
     List<Staff> findByIsActiveTrue();
@@ -32,6 +33,24 @@ public interface StaffRepository extends JpaRepository<Staff, Long> {
     @Query("SELECT s.department, COUNT(s) FROM Staff s WHERE s.isActive = true GROUP BY s.department")
     List<Object[]> countStaffByDepartment();
 
+    // Staff report in one pass, one row per (department, role) hired in the window:
+    // [department, role, count, active count, salary sum, salaries present, rating sum, ratings present]
+    @Query("SELECT s.department, s.role, COUNT(s), SUM(CASE WHEN s.isActive = true THEN 1 ELSE 0 END), " +
+            "SUM(s.salary), COUNT(s.salary), SUM(s.performanceRating), COUNT(s.performanceRating) " +
+            "FROM Staff s WHERE s.hireDate BETWEEN :start AND :end " +
+            "AND (:department IS NULL OR s.department = :department) " +
+            "GROUP BY s.department, s.role")
+    List<Object[]> summarizeByDepartmentAndRole(@Param("start") LocalDate start,
+                                                @Param("end") LocalDate end,
+                                                @Param("department") String department);
+
+    // Highest number among EMPnnn ids, used once to seed the employee id sequence
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(employee_id, 4) AS UNSIGNED)), 0) FROM staff " +
+            "WHERE employee_id REGEXP '^EMP[0-9]+$'", nativeQuery = true)
+    long findMaxEmployeeNumber();
+
+    boolean existsByEmployeeId(String employeeId);
+
     // Hard delete method
     @Modifying
     @Transactional
@@ -0,0 +1,87 @@
+package com.stockmanagement.repository;
+
+import com.stockmanagement.entity.Staff;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Reusable filters for the staff advanced search, so every criterion runs in SQL.
+ * Each filter returns null (no predicate) when its argument is empty.
+ * department and role compare with plain equality: the columns use MySQL's case-insensitive
+ * collation, so this matches the old equalsIgnoreCase and can use idx_staff_dept_role_active.
+ */
+public final class StaffSpecifications {
+
+    private StaffSpecifications() {
+    }
+
+    public static Specification<Staff> nameOrEmailContains(String name) {
+        return (root, query, cb) -> {
+            if (name == null || name.isEmpty()) {
+                return null;
+            }
+            String pattern = "%" + name.toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(cb.concat(cb.concat(root.get("firstName"), " "), root.get("lastName"))), pattern),
+                    cb.like(cb.lower(root.get("email")), pattern));
+        };
+    }
+
+    public static Specification<Staff> inDepartment(String department) {
+        return (root, query, cb) -> department == null || department.isEmpty() ? null : cb.equal(root.get("department"), department);
+    }
+
+    public static Specification<Staff> hasRole(String role) {
+        return (root, query, cb) -> role == null || role.isEmpty() ? null : cb.equal(root.get("role"), role);
+    }
+
+    public static Specification<Staff> salaryBetween(Double min, Double max) {
+        return (root, query, cb) -> between(cb, root.get("salary"), min, max);
+    }
+
+    public static Specification<Staff> ratingBetween(Double min, Double max) {
+        return (root, query, cb) -> between(cb, root.get("performanceRating"), min, max);
+    }
+
+    public static Specification<Staff> hiredBetween(LocalDate from, LocalDate to) {
+        return (root, query, cb) -> between(cb, root.get("hireDate"), from, to);
+    }
+
+    public static Specification<Staff> isActive(Boolean active) {
+        return (root, query, cb) -> active == null ? null : cb.equal(root.get("isActive"), active);
+    }
+
+    /**
+     * Combine the optional search filters; null or empty arguments are ignored
+     */
+    public static Specification<Staff> filter(String name, String department, String role,
+                                              Double minSalary, Double maxSalary,
+                                              Double minRating, Double maxRating,
+                                              LocalDate hiredFrom, LocalDate hiredTo,
+                                              Boolean active) {
+        return Specification.where(nameOrEmailContains(name))
+                .and(inDepartment(department))
+                .and(hasRole(role))
+                .and(salaryBetween(minSalary, maxSalary))
+                .and(ratingBetween(minRating, maxRating))
+                .and(hiredBetween(hiredFrom, hiredTo))
+                .and(isActive(active));
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate between(CriteriaBuilder cb, Path<Y> path, Y min, Y max) {
+        if (min != null && max != null) {
+            return cb.between(path, min, max);
+        }
+        if (min != null) {
+            return cb.greaterThanOrEqualTo(path, min);
+        }
+        if (max != null) {
+            return cb.lessThanOrEqualTo(path, max);
+        }
+        return null;
+    }
+}
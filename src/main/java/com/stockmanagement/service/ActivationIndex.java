@@ -0,0 +1,307 @@
+package com.stockmanagement.service;
+
+import com.stockmanagement.repository.DiscountRepository;
+import com.stockmanagement.repository.PromotionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In-memory activation windows of all enabled discounts and promotions, held in interval trees
+ * over (startDate, endDate) as epoch days. Answers "active on date D" and "active for item I on
+ * date D" in O(log n + k) without touching the database. Loaded once with one query per table;
+ * after that a create, update or delete re-reads only the changed row (after commit), and the
+ * day-boundary job recomputes "active today" from the trees instead of rescanning the tables.
+ */
+@Component
+public class ActivationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivationIndex.class);
+
+    private final DiscountRepository discountRepository;
+    private final PromotionRepository promotionRepository;
+    private final TransactionTemplate readTransaction;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Source windows by id, guarded by lock
+    private final LongKeyedMap<Window> discountWindows = new LongKeyedMap<>();
+    private final LongKeyedMap<Window> promotionWindows = new LongKeyedMap<>();
+    private volatile State state;
+
+    public ActivationIndex(DiscountRepository discountRepository, PromotionRepository promotionRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.discountRepository = discountRepository;
+        this.promotionRepository = promotionRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    // ===== QUERIES =====
+
+    public List<Long> activeDiscountIds(LocalDate date) {
+        return sorted(currentState().discounts.byDate.stab(date.toEpochDay()));
+    }
+
+    public List<Long> activeDiscountIdsForItem(long itemId, LocalDate date) {
+        return stabItem(currentState().discounts, itemId, date);
+    }
+
+    public List<Long> activePromotionIds(LocalDate date) {
+        return sorted(currentState().promotions.byDate.stab(date.toEpochDay()));
+    }
+
+    public List<Long> activePromotionIdsForItem(long itemId, LocalDate date) {
+        return stabItem(currentState().promotions, itemId, date);
+    }
+
+    public boolean isDiscountActiveToday(long discountId) {
+        return currentState().discountsToday.containsKey(discountId);
+    }
+
+    public boolean isPromotionActiveToday(long promotionId) {
+        return currentState().promotionsToday.containsKey(promotionId);
+    }
+
+    public Map<String, Object> getStatistics() {
+        State current = currentState();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("day", current.day.toString());
+        stats.put("discounts", current.discounts.byDate.size());
+        stats.put("discountsActiveToday", current.discountsToday.size());
+        stats.put("promotions", current.promotions.byDate.size());
+        stats.put("promotionsActiveToday", current.promotionsToday.size());
+        return stats;
+    }
+
+    // ===== UPDATES =====
+
+    /**
+     * Re-read one discount once the current transaction commits
+     */
+    public void discountChanged(long discountId) {
+        afterCommit(() -> reload(discountId, discountWindows, discountRepository::findActivationRowsById));
+    }
+
+    /**
+     * Re-read one promotion once the current transaction commits
+     */
+    public void promotionChanged(long promotionId) {
+        afterCommit(() -> reload(promotionId, promotionWindows, promotionRepository::findActivationRowsById));
+    }
+
+    /**
+     * Recompute "active today" from the trees when the date changes
+     */
+    @Scheduled(cron = "${pricing.index.rebuild-cron:0 0 0 * * *}")
+    public void rollDay() {
+        lock.lock();
+        try {
+            State current = state;
+            if (current != null) {
+                state = current.forDay(LocalDate.now());
+                logger.info("Activation index moved to {}: {} discounts and {} promotions active",
+                        state.day, state.discountsToday.size(), state.promotionsToday.size());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private State currentState() {
+        State current = state;
+        if (current != null && System.currentTimeMillis() < current.validUntilMillis) {
+            return current;
+        }
+        lock.lock();
+        try {
+            current = state;
+            if (current == null) {
+                load();
+            } else if (System.currentTimeMillis() >= current.validUntilMillis) {
+                state = current.forDay(LocalDate.now());
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Initial load: one query per table. Must hold the lock.
+     */
+    private void load() {
+        discountWindows.clear();
+        promotionWindows.clear();
+        readTransaction.executeWithoutResult(status -> {
+            addWindows(discountWindows, discountRepository.findActivationRows());
+            addWindows(promotionWindows, promotionRepository.findActivationRows());
+        });
+        state = new State(buildKind(discountWindows), buildKind(promotionWindows), LocalDate.now());
+        logger.info("Activation index loaded: {} discounts, {} promotions", discountWindows.size(), promotionWindows.size());
+    }
+
+    private void reload(long id, LongKeyedMap<Window> windows, Function<Long, List<Object[]>> rowsById) {
+        lock.lock();
+        try {
+            if (state == null) {
+                // Not loaded yet: the first query loads everything anyway
+                return;
+            }
+            windows.remove(id);
+            List<Object[]> rows = readTransaction.execute(status -> rowsById.apply(id));
+            addWindows(windows, rows);
+            KindIndex rebuilt = buildKind(windows);
+            State current = state;
+            state = windows == discountWindows
+                    ? new State(rebuilt, current.promotions, current.day)
+                    : new State(current.discounts, rebuilt, current.day);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Group [id, startDate, endDate, itemId] rows into one window per id
+     */
+    private static void addWindows(LongKeyedMap<Window> windows, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            LocalDate start = (LocalDate) row[1];
+            LocalDate end = (LocalDate) row[2];
+            if (id == null || start == null || end == null || end.isBefore(start)) {
+                continue;
+            }
+            Window window = windows.get(id);
+            if (window == null) {
+                window = new Window(id, start.toEpochDay(), end.toEpochDay());
+                windows.put(id, window);
+            }
+            if (row[3] != null) {
+                window.itemIds.add((Long) row[3]);
+            }
+        }
+    }
+
+    private static KindIndex buildKind(LongKeyedMap<Window> windows) {
+        List<IntervalIndex.Interval<Long>> all = new ArrayList<>(windows.size());
+        LongKeyedMap<List<IntervalIndex.Interval<Long>>> perItem = new LongKeyedMap<>();
+        List<Long> itemIds = new ArrayList<>();
+        windows.forEachValue(window -> {
+            IntervalIndex.Interval<Long> interval = new IntervalIndex.Interval<>(window.start, window.end, window.id);
+            all.add(interval);
+            for (Long itemId : window.itemIds) {
+                List<IntervalIndex.Interval<Long>> list = perItem.get(itemId);
+                if (list == null) {
+                    list = new ArrayList<>(2);
+                    perItem.put(itemId, list);
+                    itemIds.add(itemId);
+                }
+                list.add(interval);
+            }
+        });
+        LongKeyedMap<IntervalIndex<Long>> byItem = new LongKeyedMap<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            byItem.put(itemId, IntervalIndex.of(perItem.get(itemId)));
+        }
+        return new KindIndex(IntervalIndex.of(all), byItem);
+    }
+
+    private static List<Long> stabItem(KindIndex kind, long itemId, LocalDate date) {
+        IntervalIndex<Long> index = kind.byItem.get(itemId);
+        return index != null ? sorted(index.stab(date.toEpochDay())) : Collections.emptyList();
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Activation window of one discount or promotion
+     */
+    private static final class Window {
+        private final long id;
+        private final long start;
+        private final long end;
+        private final List<Long> itemIds = new ArrayList<>(1);
+
+        private Window(long id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class KindIndex {
+        private final IntervalIndex<Long> byDate;
+        private final LongKeyedMap<IntervalIndex<Long>> byItem;
+
+        private KindIndex(IntervalIndex<Long> byDate, LongKeyedMap<IntervalIndex<Long>> byItem) {
+            this.byDate = byDate;
+            this.byItem = byItem;
+        }
+    }
+
+    /**
+     * Immutable published state: both trees plus the ids active on one day
+     */
+    private static final class State {
+        private final KindIndex discounts;
+        private final KindIndex promotions;
+        private final LocalDate day;
+        private final long validUntilMillis;
+        private final LongKeyedMap<Boolean> discountsToday;
+        private final LongKeyedMap<Boolean> promotionsToday;
+
+        private State(KindIndex discounts, KindIndex promotions, LocalDate day) {
+            this.discounts = discounts;
+            this.promotions = promotions;
+            this.day = day;
+            this.validUntilMillis = day.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            this.discountsToday = idSet(discounts.byDate.stab(day.toEpochDay()));
+            this.promotionsToday = idSet(promotions.byDate.stab(day.toEpochDay()));
+        }
+
+        private State forDay(LocalDate newDay) {
+            return new State(discounts, promotions, newDay);
+        }
+
+        private static LongKeyedMap<Boolean> idSet(List<Long> ids) {
+            LongKeyedMap<Boolean> set = new LongKeyedMap<>(ids.size());
+            for (Long id : ids) {
+                set.put(id, Boolean.TRUE);
+            }
+            return set;
+        }
+    }
+}
@@ -1,19 +1,28 @@
 package com.stockmanagement.service;
 
 import com.stockmanagement.entity.Item;
+import com.stockmanagement.observer.StockChange;
 import com.stockmanagement.repository.ItemRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AddItemService {
 
     private final ItemRepository repository;
+    // ItemService depends on this service, so it is looked up on use
+    private final ObjectProvider<ItemService> itemService;
 
-    public AddItemService(ItemRepository repository) {
+    public AddItemService(ItemRepository repository, ObjectProvider<ItemService> itemService) {
         this.repository = repository;
+        this.itemService = itemService;
     }
 
+    @Transactional
     public void addItem(Item item) {
-        repository.save(item);
+        Item saved = repository.save(item);
+        // Published after commit; the catalog cache re-reads the item and the dashboard counts it
+        itemService.getObject().publishStockChange(StockChange.created(saved));
     }
-}
\ No newline at end of file
+}
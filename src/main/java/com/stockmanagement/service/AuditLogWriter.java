@@ -0,0 +1,506 @@
+package com.stockmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.observer.StockChange;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes stock change audit records to the audit_log table in the background.
+ * Records are buffered in a bounded queue and flushed by one virtual thread as a multi-row
+ * INSERT once batch-size records are waiting or flush-interval-ms has passed, whichever is first.
+ * Callers never wait for the database: when the queue is full, or a flush fails, the records
+ * are appended (and fsynced) to a spill file, which is replayed into the table once the
+ * database accepts writes again.
+ *
+ * Replay commits each chunk together with the number of spill lines it covers
+ * (audit_spill_progress), so a replay interrupted by a crash or an outage resumes after the
+ * last committed chunk instead of inserting it again. Lines that cannot be parsed, and
+ * records the database rejects, are moved to audit-rejected.ndjson rather than blocking
+ * the rest of the file.
+ *
+ * Configuration:
+ *   audit.writer.queue-capacity    - records buffered in memory (default 10000)
+ *   audit.writer.batch-size        - rows per INSERT (default 200)
+ *   audit.writer.flush-interval-ms - longest a record waits before a flush (default 1000)
+ *   audit.writer.spill-dir         - directory for spill files (default ./data/audit-spill)
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO audit_log (action_type, table_name, record_id, old_values, new_values, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+    private static final String SPILL_FILE = "audit-spill-current.ndjson";
+    private static final String REPLAY_PREFIX = "audit-spill-";
+    private static final String REPLAY_SUFFIX = ".replay";
+    // Deliberately outside the audit-spill-* pattern so it is never replayed
+    private static final String REJECTED_FILE = "audit-rejected.ndjson";
+    private static final String PROGRESS_SELECT = "SELECT lines_done FROM audit_spill_progress WHERE file_name = ?";
+    private static final String PROGRESS_UPSERT =
+            "INSERT INTO audit_spill_progress (file_name, lines_done) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE lines_done = VALUES(lines_done)";
+    // After a failed flush, wait this long before touching the database again
+    private static final long RETRY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${audit.writer.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.writer.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.writer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${audit.writer.spill-dir:./data/audit-spill}")
+    private String spillDir;
+
+    private BlockingQueue<StockChange> queue;
+    private Path spillDirectory;
+    private TransactionTemplate chunkTransaction;
+    private final Object spillLock = new Object();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // Only touched by the flusher thread
+    private long retryAfterNanos;
+
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        spillDirectory = Paths.get(spillDir);
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        retryAfterNanos = System.nanoTime();
+        flusher = Thread.ofVirtual().name("audit-log-writer").start(this::run);
+    }
+
+    /**
+     * Queue audit records without blocking; records that do not fit go to the spill file
+     */
+    public void enqueueAll(List<StockChange> changes) {
+        List<StockChange> overflow = null;
+        for (StockChange change : changes) {
+            if (running && queue.offer(change)) {
+                enqueued.increment();
+            } else {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(change);
+            }
+        }
+        if (overflow != null) {
+            spill(overflow);
+        }
+    }
+
+    /**
+     * Writer statistics for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queueDepth", queue.size());
+        metrics.put("capacity", queueCapacity);
+        metrics.put("enqueued", enqueued.sum());
+        metrics.put("written", written.sum());
+        metrics.put("flushes", flushes.sum());
+        metrics.put("failedFlushes", failedFlushes.sum());
+        metrics.put("spilled", spilled.sum());
+        metrics.put("replayed", replayed.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("pendingSpillFiles", hasSpillFiles());
+        return metrics;
+    }
+
+    /**
+     * Stop the flusher; whatever is still queued is written or spilled before returning
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<StockChange> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+
+    private void run() {
+        List<StockChange> buffer = new ArrayList<>(batchSize);
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        long deadline = 0;
+        while (running) {
+            try {
+                StockChange change = buffer.isEmpty()
+                        ? queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS)
+                        : queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (change != null) {
+                    if (buffer.isEmpty()) {
+                        deadline = System.nanoTime() + intervalNanos;
+                    }
+                    buffer.add(change);
+                    queue.drainTo(buffer, batchSize - buffer.size());
+                }
+                if (buffer.size() >= batchSize || (!buffer.isEmpty() && System.nanoTime() >= deadline)) {
+                    flush(buffer);
+                    buffer.clear();
+                } else if (buffer.isEmpty()) {
+                    replaySpillFiles();
+                }
+            } catch (InterruptedException e) {
+                // Shutdown: fall through and write out the buffer
+            } catch (RuntimeException e) {
+                logger.error("Audit log writer error", e);
+            }
+        }
+        if (!buffer.isEmpty()) {
+            flush(buffer);
+        }
+    }
+
+    /**
+     * Insert one batch, or spill it if the database is unavailable
+     */
+    private void flush(List<StockChange> batch) {
+        if (System.nanoTime() - retryAfterNanos < 0) {
+            spill(batch);
+            return;
+        }
+        try {
+            insert(batch);
+            flushes.increment();
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            retryAfterNanos = System.nanoTime() + RETRY_BACKOFF_NANOS;
+            logger.warn("Audit flush of {} records failed, spilling to disk: {}", batch.size(), e.getMessage());
+            spill(batch);
+        }
+    }
+
+    /**
+     * One multi-row INSERT per batch-size chunk
+     */
+    private void insert(List<StockChange> changes) {
+        for (int from = 0; from < changes.size(); from += batchSize) {
+            List<StockChange> chunk = changes.subList(from, Math.min(changes.size(), from + batchSize));
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * (ROW_PLACEHOLDER.length() + 2))
+                    .append(INSERT_PREFIX);
+            List<Object> args = new ArrayList<>(chunk.size() * 6);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(ROW_PLACEHOLDER);
+                addRowArgs(args, chunk.get(i));
+            }
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+
+    private void addRowArgs(List<Object> args, StockChange change) {
+        Map<String, Object> oldValues = new LinkedHashMap<>();
+        oldValues.put("quantity", change.getOldQuantity());
+        Map<String, Object> newValues = new LinkedHashMap<>();
+        newValues.put("quantity", change.getNewQuantity());
+        newValues.put("change", change.getDelta());
+        newValues.put("name", change.getItemName());
+        newValues.put("price", change.getPrice());
+        if (change.getOldPrice() != null && !change.getOldPrice().equals(change.getPrice())) {
+            oldValues.put("price", change.getOldPrice());
+        }
+
+        args.add(actionType(change));
+        args.add("item");
+        args.add(change.getItemId());
+        args.add(toJson(oldValues));
+        args.add(toJson(newValues));
+        args.add(Timestamp.valueOf(change.getChangedAt()));
+    }
+
+    private static String actionType(StockChange change) {
+        if (change.getKind() == StockChange.Kind.CREATED) {
+            return "ITEM_CREATED";
+        }
+        if (change.getKind() == StockChange.Kind.REMOVED) {
+            return "ITEM_DELETED";
+        }
+        int delta = change.getDelta();
+        if (delta > 0) {
+            return "STOCK_INCREASE";
+        }
+        return delta < 0 ? "STOCK_DECREASE" : "STOCK_UNCHANGED";
+    }
+
+    // ===== SPILL FILES =====
+
+    /**
+     * Append records to the current spill file and force them to disk
+     */
+    private void spill(List<StockChange> changes) {
+        StringBuilder lines = new StringBuilder();
+        for (StockChange change : changes) {
+            lines.append(toJson(toSpillRecord(change))).append('\n');
+        }
+        synchronized (spillLock) {
+            try {
+                append(spillDirectory.resolve(SPILL_FILE), lines);
+                spilled.add(changes.size());
+            } catch (IOException e) {
+                // Last resort: keep the records in the application log
+                logger.error("Could not spill {} audit records to {}: {}", changes.size(), spillDirectory, lines, e);
+            }
+        }
+    }
+
+    /**
+     * Move the current spill file aside and insert every pending spill file into the table
+     */
+    private void replaySpillFiles() {
+        if (System.nanoTime() - retryAfterNanos < 0 || !hasSpillFiles()) {
+            return;
+        }
+        synchronized (spillLock) {
+            Path current = spillDirectory.resolve(SPILL_FILE);
+            if (Files.exists(current)) {
+                try {
+                    Files.move(current, spillDirectory.resolve(REPLAY_PREFIX + System.currentTimeMillis() + REPLAY_SUFFIX),
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    logger.warn("Could not rotate audit spill file: {}", e.getMessage());
+                    return;
+                }
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDirectory, REPLAY_PREFIX + "*" + REPLAY_SUFFIX)) {
+            for (Path file : files) {
+                replayFile(file);
+            }
+        } catch (IOException | RuntimeException e) {
+            failedFlushes.increment();
+            retryAfterNanos = System.nanoTime() + RETRY_BACKOFF_NANOS;
+            logger.warn("Audit spill replay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Insert a spill file chunk by chunk, resuming after the last chunk a previous attempt committed
+     */
+    private void replayFile(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        long linesDone = linesDone(fileName);
+        List<StockChange> batch = new ArrayList<>(batchSize);
+        List<String> batchLines = new ArrayList<>(batchSize);
+        List<Long> batchLineNumbers = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= linesDone || line.isBlank()) {
+                    continue;
+                }
+                StockChange change;
+                try {
+                    change = fromSpillRecord(objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {}));
+                } catch (JsonProcessingException | RuntimeException e) {
+                    // Typically the half-written last line of a spill interrupted by a crash
+                    reject(fileName, lineNumber, line, e);
+                    continue;
+                }
+                batch.add(change);
+                batchLines.add(line);
+                batchLineNumbers.add(lineNumber);
+                if (batch.size() >= batchSize) {
+                    replayChunk(fileName, batch, batchLines, batchLineNumbers, lineNumber);
+                    batch.clear();
+                    batchLines.clear();
+                    batchLineNumbers.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            replayChunk(fileName, batch, batchLines, batchLineNumbers, lineNumber);
+        }
+        Files.delete(file);
+        jdbcTemplate.update("DELETE FROM audit_spill_progress WHERE file_name = ?", fileName);
+        logger.info("Replayed audit spill file {}", fileName);
+    }
+
+    /**
+     * Insert one chunk and record the file position it ends at in the same transaction.
+     * If the database rejects the chunk, retry it row by row so only the offending records are set aside.
+     */
+    private void replayChunk(String fileName, List<StockChange> chunk, List<String> lines,
+                             List<Long> lineNumbers, long endLine) {
+        try {
+            commitReplay(fileName, chunk, endLine);
+            replayed.add(chunk.size());
+            return;
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Audit spill chunk in {} rejected, retrying row by row: {}", fileName, e.getMessage());
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            // The last row also covers any rejected or blank lines that trailed it in the chunk
+            long rowEnd = i == chunk.size() - 1 ? endLine : lineNumbers.get(i);
+            try {
+                commitReplay(fileName, chunk.subList(i, i + 1), rowEnd);
+                replayed.increment();
+            } catch (DataIntegrityViolationException e) {
+                reject(fileName, lineNumbers.get(i), lines.get(i), e);
+                jdbcTemplate.update(PROGRESS_UPSERT, fileName, rowEnd);
+            }
+        }
+    }
+
+    private void commitReplay(String fileName, List<StockChange> rows, long endLine) {
+        chunkTransaction.executeWithoutResult(status -> {
+            insert(rows);
+            jdbcTemplate.update(PROGRESS_UPSERT, fileName, endLine);
+        });
+    }
+
+    /**
+     * Lines of the file already committed by an earlier replay attempt
+     */
+    private long linesDone(String fileName) {
+        List<Long> done = jdbcTemplate.queryForList(PROGRESS_SELECT, Long.class, fileName);
+        return done.isEmpty() ? 0 : done.get(0);
+    }
+
+    /**
+     * Set a spill line aside in the rejected file so it no longer blocks replay
+     */
+    private void reject(String fileName, long lineNumber, String line, Exception cause) {
+        rejected.increment();
+        logger.warn("Rejected audit spill record from {} line {}: {}", fileName, lineNumber, cause.getMessage());
+        try {
+            append(spillDirectory.resolve(REJECTED_FILE), new StringBuilder(line).append('\n'));
+        } catch (IOException e) {
+            logger.error("Could not write rejected audit record to {}: {}", REJECTED_FILE, line, e);
+        }
+    }
+
+    private void append(Path target, CharSequence lines) throws IOException {
+        Files.createDirectories(spillDirectory);
+        try (FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+
+    private boolean hasSpillFiles() {
+        if (!Files.isDirectory(spillDirectory)) {
+            return false;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDirectory, REPLAY_PREFIX + "*")) {
+            return files.iterator().hasNext();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Map<String, Object> toSpillRecord(StockChange change) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("itemId", change.getItemId());
+        record.put("itemName", change.getItemName());
+        record.put("category", change.getCategory());
+        record.put("sku", change.getSku());
+        record.put("price", change.getPrice() != null ? change.getPrice().toPlainString() : null);
+        record.put("oldPrice", change.getOldPrice() != null ? change.getOldPrice().toPlainString() : null);
+        record.put("oldQuantity", change.getOldQuantity());
+        record.put("newQuantity", change.getNewQuantity());
+        record.put("kind", change.getKind().name());
+        record.put("changedAt", change.getChangedAt().toString());
+        return record;
+    }
+
+    private StockChange fromSpillRecord(Map<String, Object> record) {
+        Object itemId = record.get("itemId");
+        Object price = record.get("price");
+        Object oldPrice = record.get("oldPrice");
+        return new StockChange(
+                itemId != null ? ((Number) itemId).longValue() : null,
+                (String) record.get("itemName"),
+                (String) record.get("category"),
+                (String) record.get("sku"),
+                price != null ? new BigDecimal(price.toString()) : null,
+                oldPrice != null ? new BigDecimal(oldPrice.toString()) : null,
+                ((Number) record.get("oldQuantity")).intValue(),
+                ((Number) record.get("newQuantity")).intValue(),
+                StockChange.Kind.valueOf((String) record.get("kind")),
+                LocalDateTime.parse((String) record.get("changedAt")));
+    }
+
+    private String toJson(Map<String, Object> values) {
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize audit record", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.stockmanagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates unique bill numbers (BILL-0000000001, BILL-0000000002, ...).
+ * Numbers come from blocks leased from the id_sequences table, so most calls
+ * need no database round-trip and numbers never collide across instances.
+ * Numbers are unique but not gap-free: a block unused at shutdown is skipped.
+ */
+@Component
+public class BillNumberGenerator {
+
+    private static final String SEQUENCE_NAME = "bill_number";
+
+    @Autowired
+    private SequenceAllocator sequenceAllocator;
+
+    @Value("${bill.number.block-size:100}")
+    private int blockSize;
+
+    public String nextBillNumber() {
+        // 10 digits keeps these distinct from the older 13-digit BILL-<epoch millis> numbers
+        return String.format("BILL-%010d", sequenceAllocator.next(SEQUENCE_NAME, blockSize, 1));
+    }
+}
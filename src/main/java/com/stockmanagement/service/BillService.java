@@ -1,8 +1,17 @@
 package com.stockmanagement.service;
 
+import com.stockmanagement.dto.BillResponse;
+import com.stockmanagement.dto.DailySalesDTO;
 import com.stockmanagement.entity.*;
 import com.stockmanagement.repository.BillRepository;
+import com.stockmanagement.repository.BillSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,7 +19,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -25,6 +35,21 @@ public class BillService {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private BillNumberGenerator billNumberGenerator;
+
+    @Autowired
+    private SalesRollupService salesRollup;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows held in the persistence context before it is cleared while streaming
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     // Getters and Setters for dependencies
     public BillRepository getBillRepository() {
         return billRepository;
@@ -55,6 +80,29 @@ public class BillService {
         return billRepository.findAll();
     }
 
+    /**
+     * Stream bills with id greater than afterId to the consumer as header-only DTOs, in id order.
+     * The persistence context is cleared periodically so memory stays flat for any result size.
+     * @param afterId Cursor - the last bill id the client already has, or null to start at the beginning
+     * @param limit Maximum number of bills to stream, or null for no limit
+     * @return Number of bills streamed
+     */
+    @Transactional(readOnly = true)
+    public long streamBills(Long afterId, Integer limit, Consumer<BillResponse> consumer) {
+        Pageable pageable = limit != null && limit > 0 ? PageRequest.of(0, limit) : Pageable.unpaged();
+        long count = 0;
+        try (Stream<Bill> bills = billRepository.streamByIdAfter(afterId != null ? afterId : 0L, pageable)) {
+            Iterator<Bill> iterator = bills.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(BillResponse.summaryOf(iterator.next()));
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
     public Optional<Bill> getBillById(Long id) {
         return billRepository.findById(id);
     }
@@ -65,7 +113,7 @@ public class BillService {
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + billRequest.getCustomerId()));
 
         // Generate bill number
-        String billNumber = "BILL-" + System.currentTimeMillis();
+        String billNumber = billNumberGenerator.nextBillNumber();
 
         Bill bill = new Bill();
         bill.setCustomer(customer);
@@ -78,16 +126,13 @@ public class BillService {
         BigDecimal totalAmount = BigDecimal.ZERO;
         List<BillItem> items = new ArrayList<>();
 
+        // Reserve stock for all lines at once (one select, one batched conditional update)
+        List<com.stockmanagement.dto.BillItemRequest> lines = billRequest.getItems();
+        Map<Long, Product> products = stockReservationService.reserve(lines);
+
         // Process bill items
-        for (com.stockmanagement.dto.BillItemRequest itemRequest : billRequest.getItems()) {
-            Product product = productService.getProductById(itemRequest.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + itemRequest.getProductId()));
-
-            if (product.getQuantityInStock() < itemRequest.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName() +
-                        ". Available: " + product.getQuantityInStock() +
-                        ", Requested: " + itemRequest.getQuantity());
-            }
+        for (com.stockmanagement.dto.BillItemRequest itemRequest : lines) {
+            Product product = products.get(itemRequest.getProductId());
 
             BillItem billItem = new BillItem();
             billItem.setBill(bill);
@@ -98,9 +143,6 @@ public class BillService {
 
             items.add(billItem);
             totalAmount = totalAmount.add(billItem.getTotalPrice());
-
-            // Update product stock
-            productService.updateStock(product.getId(), itemRequest.getQuantity());
         }
 
         bill.setItems(items);
@@ -120,27 +162,38 @@ public class BillService {
             bill.setNotes(billRequest.getNotes());
         }
 
-        return billRepository.save(bill);
+        Bill savedBill = billRepository.save(bill);
+        salesRollup.apply(null, SalesRollupService.Contribution.of(savedBill));
+        return savedBill;
     }
 
     public Bill saveBill(Bill bill) {
+        // The caller may have changed status or amounts: compare with the stored row
+        SalesRollupService.Contribution before = bill.getId() != null ? salesRollup.storedContribution(bill.getId()) : null;
         bill.setUpdatedDate(LocalDateTime.now());
-        return billRepository.save(bill);
+        Bill savedBill = billRepository.save(bill);
+        salesRollup.apply(before, SalesRollupService.Contribution.of(savedBill));
+        return savedBill;
     }
 
     public Bill updateBillStatus(Long id, BillStatus status) {
         Bill bill = billRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Bill not found with id: " + id));
 
+        SalesRollupService.Contribution before = salesRollup.storedContribution(id);
         bill.setStatus(status);
         bill.setUpdatedDate(LocalDateTime.now());
-        return billRepository.save(bill);
+        Bill savedBill = billRepository.save(bill);
+        salesRollup.apply(before, SalesRollupService.Contribution.of(savedBill));
+        return savedBill;
     }
 
     public void deleteBill(Long id) {
         Bill bill = billRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Bill not found with id: " + id));
+        SalesRollupService.Contribution before = salesRollup.storedContribution(id);
         billRepository.delete(bill);
+        salesRollup.apply(before, null);
     }
 
     public List<Bill> getBillsByCustomer(Long customerId) {
@@ -148,386 +201,115 @@ public class BillService {
     }
 
     public List<Bill> getBillsByDateRange(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atTime(23, 59, 59);
-        return billRepository.findByBillDateBetween(start, end);
-    }
-
-    public Bill getBillByBillNumber(String billNumber) {
-        return billRepository.findByBillNumber(billNumber)
-                .orElseThrow(() -> new RuntimeException("Bill not found with number: " + billNumber));
-    }
-
-    public BigDecimal getTotalRevenue() {
-        List<Bill> paidBills = billRepository.findByStatus(BillStatus.PAID);
-        return paidBills.stream()
-                .map(Bill::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    public Map<String, Object> getSalesReport(LocalDate startDate, LocalDate endDate) {
-        List<Bill> bills = getBillsByDateRange(startDate, endDate);
-
-        BigDecimal totalRevenue = bills.stream()
-                .filter(bill -> bill.getStatus() == BillStatus.PAID)
-                .map(Bill::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        long totalBills = bills.size();
-        long paidBills = bills.stream().filter(bill -> bill.getStatus() == BillStatus.PAID).count();
-        long pendingBills = bills.stream().filter(bill -> bill.getStatus() == BillStatus.PENDING).count();
-
-        Map<String, Object> report = new HashMap<>();
-        report.put("totalRevenue", totalRevenue);
-        report.put("totalBills", totalBills);
-        report.put("paidBills", paidBills);
-        report.put("pendingBills", pendingBills);
-        report.put("startDate", startDate);
-        report.put("endDate", endDate);
-        report.put("bills", bills);
-
-        return report;
-    }
-}
-
-// BillItemRequest class moved to com.stockmanagement.dto package
-
-// Enhanced BillResponse DTO for API responses
-class BillResponse {
-    private Long id;
-    private String billNumber;
-    private BigDecimal totalAmount;
-    private LocalDateTime billDate;
-    private BillStatus status;
-    private CustomerInfo customer;
-    private List<BillItemResponse> items;
-    private LocalDateTime createdDate;
-
-    // Default constructor
-    public BillResponse() {
-        this.items = new ArrayList<>();
-    }
-
-    // Constructor from Bill entity
-    public BillResponse(Bill bill) {
-        this();
-        this.id = bill.getId();
-        this.billNumber = bill.getBillNumber();
-        this.totalAmount = bill.getTotalAmount();
-        this.billDate = bill.getBillDate();
-        this.status = bill.getStatus();
-        this.createdDate = bill.getCreatedDate();
-
-        if (bill.getCustomer() != null) {
-            this.customer = new CustomerInfo(bill.getCustomer());
-        }
-
-        if (bill.getItems() != null) {
-            this.items = bill.getItems().stream()
-                    .map(BillItemResponse::new)
-                    .collect(Collectors.toList());
-        }
+        return billRepository.findByBillDateGreaterThanEqualAndBillDateLessThan(
+                startOfDay(startDate), startOfNextDay(endDate));
     }
 
-    // Getters and Setters
-    public Long getId() {
-        return id;
-    }
+    /**
+     * Newest-first ordering shared by the offset and keyset listings
+     */
+    public static final Sort BILL_LIST_SORT = Sort.by(Sort.Order.desc("billDate"), Sort.Order.desc("id"));
 
-    public void setId(Long id) {
-        this.id = id;
+    /**
+     * Get one page of bills, filtered by optional date range and status in the database
+     */
+    @Transactional(readOnly = true)
+    public Page<Bill> searchBills(LocalDate startDate, LocalDate endDate, BillStatus status, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, BILL_LIST_SORT);
+        return billRepository.findAll(
+                BillSpecifications.filter(startOfDay(startDate), startOfNextDay(endDate), status), pageable);
     }
 
-    public String getBillNumber() {
-        return billNumber;
+    /**
+     * Get the page of bills that follows the (billDate, id) cursor of the last row already shown.
+     * Seeks on the index instead of skipping rows, so deep pages cost the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public List<Bill> searchBillsAfter(LocalDate startDate, LocalDate endDate, BillStatus status,
+                                       LocalDateTime afterDate, Long afterId, int size) {
+        return billRepository.findPageAfter(status, startOfDay(startDate), startOfNextDay(endDate),
+                afterDate, afterId, PageRequest.of(0, size));
     }
 
-    public void setBillNumber(String billNumber) {
-        this.billNumber = billNumber;
+    @Transactional(readOnly = true)
+    public long countBills(LocalDate startDate, LocalDate endDate, BillStatus status) {
+        return billRepository.count(
+                BillSpecifications.filter(startOfDay(startDate), startOfNextDay(endDate), status));
     }
 
-    public BigDecimal getTotalAmount() {
-        return totalAmount;
+    private LocalDateTime startOfDay(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
     }
 
-    public void setTotalAmount(BigDecimal totalAmount) {
-        this.totalAmount = totalAmount;
+    // Exclusive upper bound for an inclusive end date (bill_date < the next midnight)
+    private LocalDateTime startOfNextDay(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
     }
 
-    public LocalDateTime getBillDate() {
-        return billDate;
-    }
-
-    public void setBillDate(LocalDateTime billDate) {
-        this.billDate = billDate;
-    }
-
-    public BillStatus getStatus() {
-        return status;
-    }
-
-    public void setStatus(BillStatus status) {
-        this.status = status;
-    }
-
-    public CustomerInfo getCustomer() {
-        return customer;
-    }
-
-    public void setCustomer(CustomerInfo customer) {
-        this.customer = customer;
-    }
-
-    public List<BillItemResponse> getItems() {
-        return items;
-    }
-
-    public void setItems(List<BillItemResponse> items) {
-        this.items = items != null ? items : new ArrayList<>();
-    }
-
-    public LocalDateTime getCreatedDate() {
-        return createdDate;
+    public Bill getBillByBillNumber(String billNumber) {
+        return billRepository.findByBillNumber(billNumber)
+                .orElseThrow(() -> new RuntimeException("Bill not found with number: " + billNumber));
     }
 
-    public void setCreatedDate(LocalDateTime createdDate) {
-        this.createdDate = createdDate;
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalRevenue() {
+        return billRepository.sumTotalAmountByStatus(BillStatus.PAID);
     }
 
-    // Helper methods
-    public void addItem(BillItemResponse item) {
-        if (this.items == null) {
-            this.items = new ArrayList<>();
+    /**
+     * Sales totals for a date range, from the daily rollup (at most one row per day and status).
+     * Falls back to aggregating bills in the database (GROUP BY day and status) while the
+     * rollup is not available. Bill rows are not part of the report; page through them with searchBills.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSalesReport(LocalDate startDate, LocalDate endDate) {
+        // Rows of [date, status, billCount, revenue, tax]
+        List<Object[]> rows = salesRollup.isReady()
+                ? salesRollup.readDaily(startDate, endDate)
+                : billRepository.getDailySalesByStatus(startOfDay(startDate), startOfNextDay(endDate));
+
+        Map<String, Long> billsByStatus = new LinkedHashMap<>();
+        for (BillStatus status : BillStatus.values()) {
+            billsByStatus.put(status.name(), 0L);
         }
-        this.items.add(item);
-    }
-
-    @Override
-    public String toString() {
-        return "BillResponse{" +
-                "id=" + id +
-                ", billNumber='" + billNumber + '\'' +
-                ", totalAmount=" + totalAmount +
-                ", billDate=" + billDate +
-                ", status=" + status +
-                ", customer=" + customer +
-                ", items=" + items +
-                ", createdDate=" + createdDate +
-                '}';
-    }
-}
-
-// CustomerInfo DTO for BillResponse
-class CustomerInfo {
-    private Long id;
-    private String firstName;
-    private String lastName;
-    private String email;
-    private String phone;
-
-    // Default constructor
-    public CustomerInfo() {}
-
-    // Constructor from Customer entity
-    public CustomerInfo(Customer customer) {
-        this.id = customer.getId();
-        this.firstName = customer.getFirstName();
-        this.lastName = customer.getLastName();
-        this.email = customer.getEmail();
-        this.phone = customer.getPhone();
-    }
-
-    // Getters and Setters
-    public Long getId() {
-        return id;
-    }
-
-    public void setId(Long id) {
-        this.id = id;
-    }
-
-    public String getFirstName() {
-        return firstName;
-    }
-
-    public void setFirstName(String firstName) {
-        this.firstName = firstName;
-    }
-
-    public String getLastName() {
-        return lastName;
-    }
-
-    public void setLastName(String lastName) {
-        this.lastName = lastName;
-    }
-
-    public String getEmail() {
-        return email;
-    }
-
-    public void setEmail(String email) {
-        this.email = email;
-    }
-
-    public String getPhone() {
-        return phone;
-    }
-
-    public void setPhone(String phone) {
-        this.phone = phone;
-    }
-
-    public String getFullName() {
-        return firstName + " " + lastName;
-    }
-
-    @Override
-    public String toString() {
-        return "CustomerInfo{" +
-                "id=" + id +
-                ", firstName='" + firstName + '\'' +
-                ", lastName='" + lastName + '\'' +
-                ", email='" + email + '\'' +
-                ", phone='" + phone + '\'' +
-                '}';
-    }
-}
-
-// BillItemResponse DTO for BillResponse
-class BillItemResponse {
-    private Long id;
-    private ProductInfo product;
-    private Integer quantity;
-    private BigDecimal unitPrice;
-    private BigDecimal totalPrice;
-
-    // Default constructor
-    public BillItemResponse() {}
-
-    // Constructor from BillItem entity
-    public BillItemResponse(BillItem billItem) {
-        this.id = billItem.getId();
-        this.quantity = billItem.getQuantity();
-        this.unitPrice = billItem.getUnitPrice();
-        this.totalPrice = billItem.getTotalPrice();
-
-        if (billItem.getProduct() != null) {
-            this.product = new ProductInfo(billItem.getProduct());
+        long totalBills = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        BigDecimal totalTax = BigDecimal.ZERO;
+        Map<LocalDate, DailySalesDTO> days = new TreeMap<>();
+        for (Object[] row : rows) {
+            BillStatus status = (BillStatus) row[1];
+            long count = ((Number) row[2]).longValue();
+            if (status == null || count == 0) {
+                continue;
+            }
+            totalBills += count;
+            billsByStatus.merge(status.name(), count, Long::sum);
+
+            DailySalesDTO day = days.computeIfAbsent((LocalDate) row[0], DailySalesDTO::new);
+            day.setTotalBills(day.getTotalBills() + count);
+            if (status == BillStatus.PAID) {
+                day.setPaidBills(count);
+                day.setRevenue((BigDecimal) row[3]);
+                totalRevenue = totalRevenue.add((BigDecimal) row[3]);
+                totalTax = totalTax.add((BigDecimal) row[4]);
+            }
         }
-    }
-
-    // Getters and Setters
-    public Long getId() {
-        return id;
-    }
-
-    public void setId(Long id) {
-        this.id = id;
-    }
-
-    public ProductInfo getProduct() {
-        return product;
-    }
-
-    public void setProduct(ProductInfo product) {
-        this.product = product;
-    }
 
-    public Integer getQuantity() {
-        return quantity;
-    }
-
-    public void setQuantity(Integer quantity) {
-        this.quantity = quantity;
-    }
-
-    public BigDecimal getUnitPrice() {
-        return unitPrice;
-    }
-
-    public void setUnitPrice(BigDecimal unitPrice) {
-        this.unitPrice = unitPrice;
-    }
-
-    public BigDecimal getTotalPrice() {
-        return totalPrice;
-    }
-
-    public void setTotalPrice(BigDecimal totalPrice) {
-        this.totalPrice = totalPrice;
-    }
+        Map<String, Object> report = new HashMap<>();
+        report.put("totalRevenue", totalRevenue);
+        report.put("totalTax", totalTax);
+        report.put("totalBills", totalBills);
+        report.put("paidBills", billsByStatus.get(BillStatus.PAID.name()));
+        report.put("pendingBills", billsByStatus.get(BillStatus.PENDING.name()));
+        report.put("billsByStatus", billsByStatus);
+        report.put("dailySales", new ArrayList<>(days.values()));
+        report.put("startDate", startDate);
+        report.put("endDate", endDate);
 
-    @Override
-    public String toString() {
-        return "BillItemResponse{" +
-                "id=" + id +
-                ", product=" + product +
-                ", quantity=" + quantity +
-                ", unitPrice=" + unitPrice +
-                ", totalPrice=" + totalPrice +
-                '}';
+        return report;
     }
 }
 
-// ProductInfo DTO for BillItemResponse
-class ProductInfo {
-    private Long id;
-    private String name;
-    private String description;
-    private String sku;
-
-    // Default constructor
-    public ProductInfo() {}
-
-    // Constructor from Product entity
-    public ProductInfo(Product product) {
-        this.id = product.getId();
-        this.name = product.getName();
-        //this.description = product.getDescription();
-        this.sku = product.getSku();
-    }
-
-    // Getters and Setters
-    public Long getId() {
-        return id;
-    }
-
-    public void setId(Long id) {
-        this.id = id;
-    }
-
-    public String getName() {
-        return name;
-    }
-
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    public String getDescription() {
-        return description;
-    }
-
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
-    public String getSku() {
-        return sku;
-    }
-
-    public void setSku(String sku) {
-        this.sku = sku;
-    }
+// BillItemRequest class moved to com.stockmanagement.dto package
 
-    @Override
-    public String toString() {
-        return "ProductInfo{" +
-                "id=" + id +
-                ", name='" + name + '\'' +
-                //", description='" + description + '\'' +
-                ", sku='" + sku + '\'' +
-                '}';
-    }
-}
\ No newline at end of file
+// BillResponse, CustomerInfo, BillItemResponse and ProductInfo moved to com.stockmanagement.dto package
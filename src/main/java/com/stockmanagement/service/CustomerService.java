@@ -1,10 +1,16 @@
 package com.stockmanagement.service;
 
+import com.stockmanagement.config.DatabaseIndexInitializer;
 import com.stockmanagement.entity.Customer;
 import com.stockmanagement.factory.MembershipFactory;
 import com.stockmanagement.factory.MembershipLevel;
 import com.stockmanagement.repository.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +31,38 @@ public class CustomerService {
     @Autowired
     private MembershipFactory membershipFactory;
 
+    @Autowired
+    private DatabaseIndexInitializer indexInitializer;
+
+    @Autowired
+    private SequenceAllocator sequenceAllocator;
+
+    @Autowired
+    private CustomerStatsService customerStats;
+
+    private static final String CUSTOMER_ID_SEQUENCE = "customer_id";
+
+    @Value("${customer.id.block-size:20}")
+    private int customerIdBlockSize;
+
+    @Value("${search.fulltext.min-length:2}")
+    private int fullTextMinLength;
+
+    // Characters with a meaning in MySQL boolean-mode full-text queries
+    private static final Pattern FULLTEXT_OPERATORS = Pattern.compile("[\"+\\-<>()~*@]");
+
+    private static final long FULLTEXT_RECHECK_MS = 60_000;
+
+    private volatile boolean fullTextAvailable;
+    private volatile long fullTextCheckedAt;
+
+    @Value("${customer.count.cache-ms:10000}")
+    private long countCacheMs;
+
+    // Row count for the list pager, re-read at most every countCacheMs; -1 forces a re-read
+    private volatile long cachedCount = -1;
+    private volatile long countCheckedAt;
+
     // Email validation pattern
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
 
@@ -39,6 +77,40 @@ public class CustomerService {
         return customerRepository.findByIsActiveTrue();
     }
 
+    /**
+     * One page of the customer list, ordered by last name then id. With a cursor (the last
+     * name and id of the previous page's last row) the page is read by keyset, so deep pages
+     * cost the same as the first; without one it falls back to an offset. A page past the
+     * end is simply empty.
+     * @param page Zero-based page number
+     * @param size Page size
+     * @param afterLastName Last name of the row before this page, or null
+     * @param afterId Id of the row before this page, or null
+     */
+    @Transactional(readOnly = true)
+    public Page<Customer> getCustomerPage(int page, int size, String afterLastName, Long afterId) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.max(size, 1));
+        List<Customer> content = afterLastName != null && afterId != null
+                ? customerRepository.findPageAfter(afterLastName, afterId, PageRequest.ofSize(pageRequest.getPageSize()))
+                : customerRepository.findPageOrderByName(pageRequest);
+        return new PageImpl<>(content, pageRequest, countCustomers());
+    }
+
+    /**
+     * Number of customers, cached for customer.count.cache-ms so paging does not count
+     * the table on every request. Creating or deleting a customer drops the cached value.
+     */
+    public long countCustomers() {
+        long now = System.currentTimeMillis();
+        long count = cachedCount;
+        if (count < 0 || now - countCheckedAt >= countCacheMs) {
+            count = customerRepository.count();
+            cachedCount = count;
+            countCheckedAt = now;
+        }
+        return count;
+    }
+
     public Optional<Customer> getCustomerById(Long id) {
         return customerRepository.findById(id);
     }
@@ -83,13 +155,17 @@ public class CustomerService {
             customer.setMembershipLevel("Standard");
         }
 
-        return customerRepository.save(customer);
+        Customer savedCustomer = customerRepository.save(customer);
+        customerStats.apply(null, CustomerStatsService.Contribution.of(savedCustomer));
+        cachedCount = -1;
+        return savedCustomer;
     }
 
     public Customer updateCustomer(Long id, Customer customerDetails) {
         Optional<Customer> optionalCustomer = customerRepository.findById(id);
         if (optionalCustomer.isPresent()) {
             Customer customer = optionalCustomer.get();
+            CustomerStatsService.Contribution before = customerStats.storedContribution(id);
 
             // Format data
             formatCustomerData(customerDetails);
@@ -146,6 +222,10 @@ public class CustomerService {
 
             // Update photo fields if provided
             if (customerDetails.getPhotoUrl() != null) {
+                if (!customerDetails.getPhotoUrl().equals(customer.getPhotoUrl())) {
+                    // The old thumbnail belongs to the old photo
+                    customer.setPhotoThumbnailUrl(null);
+                }
                 customer.setPhotoUrl(customerDetails.getPhotoUrl());
             }
             
@@ -153,7 +233,9 @@ public class CustomerService {
                 customer.setPhotoThumbnailUrl(customerDetails.getPhotoThumbnailUrl());
             }
 
-            return customerRepository.save(customer);
+            Customer savedCustomer = customerRepository.save(customer);
+            customerStats.apply(before, CustomerStatsService.Contribution.of(savedCustomer));
+            return savedCustomer;
         }
         throw new IllegalArgumentException("Customer not found with ID: " + id);
     }
@@ -161,17 +243,59 @@ public class CustomerService {
     public boolean deleteCustomer(Long id) {
         Optional<Customer> optionalCustomer = customerRepository.findById(id);
         if (optionalCustomer.isPresent()) {
+            CustomerStatsService.Contribution before = customerStats.storedContribution(id);
             customerRepository.hardDeleteById(id);
+            customerStats.apply(before, null);
+            cachedCount = -1;
             return true;
         }
         return false;
     }
 
-    public List<Customer> searchCustomers(String keyword) {
-        if (keyword == null || keyword.trim().isEmpty()) {
-            return getAllCustomers();
+    /**
+     * Ranked, paged customer search. Uses the ngram FULLTEXT index (ft_customers_search) when
+     * it exists and the term is at least search.fulltext.min-length characters (MySQL's
+     * ngram_token_size); otherwise falls back to a ranked LIKE scan.
+     * @param keyword Search text matched against name, email, phone and customer id
+     * @param page Zero-based page number
+     * @param size Page size
+     */
+    @Transactional(readOnly = true)
+    public Page<Customer> searchCustomers(String keyword, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.max(size, 1));
+        String term = keyword != null ? keyword.trim() : "";
+        if (term.isEmpty()) {
+            return customerRepository.findAll(pageRequest.withSort(Sort.by("id")));
+        }
+        String phrase = FULLTEXT_OPERATORS.matcher(term).replaceAll(" ").trim();
+        if (phrase.length() >= fullTextMinLength && isFullTextAvailable()) {
+            // A quoted phrase makes the ngram parser require the n-grams in sequence: a substring match
+            return customerRepository.fullTextSearch("\"" + phrase + "\"", pageRequest);
+        }
+        return customerRepository.searchCustomersRanked(term, pageRequest);
+    }
+
+    /**
+     * Whether the full-text index exists and was built without stopwords (otherwise it misses
+     * most short substrings). A negative answer is re-checked after a minute, since the index
+     * is created, or rebuilt, at startup and may not be ready yet.
+     */
+    private boolean isFullTextAvailable() {
+        if (fullTextAvailable) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - fullTextCheckedAt < FULLTEXT_RECHECK_MS) {
+            return false;
+        }
+        fullTextCheckedAt = now;
+        try {
+            fullTextAvailable = indexInitializer.isFullTextIndexWithoutStopwords("customers",
+                    DatabaseIndexInitializer.CUSTOMER_SEARCH_INDEX);
+        } catch (Exception e) {
+            fullTextAvailable = false;
         }
-        return customerRepository.searchCustomers(keyword);
+        return fullTextAvailable;
     }
 
     // Method to update loyalty points
@@ -179,13 +303,16 @@ public class CustomerService {
         Optional<Customer> optionalCustomer = customerRepository.findById(id);
         if (optionalCustomer.isPresent()) {
             Customer customer = optionalCustomer.get();
+            CustomerStatsService.Contribution before = customerStats.storedContribution(id);
             Integer currentPoints = customer.getLoyaltyPoints() != null ? customer.getLoyaltyPoints() : 0;
             customer.setLoyaltyPoints(currentPoints + points);
             
             // Update membership level based on loyalty points
             updateMembershipLevel(customer);
             
-            return customerRepository.save(customer);
+            Customer savedCustomer = customerRepository.save(customer);
+            customerStats.apply(before, CustomerStatsService.Contribution.of(savedCustomer));
+            return savedCustomer;
         }
         throw new IllegalArgumentException("Customer not found with ID: " + id);
     }
@@ -326,55 +453,55 @@ public class CustomerService {
         return cleanPhone != null && PHONE_PATTERN.matcher(cleanPhone).matches();
     }
 
-    // Method to generate a unique customer ID
+    /**
+     * Next unused CUSTnnn id. Numbers come from the customer_id sequence (seeded from the
+     * highest existing id), so this costs no table scan; ids entered by hand that the
+     * sequence has not reached yet are skipped.
+     */
     private String generateCustomerId() {
-        // Get the maximum customer ID from the database
-        List<Customer> allCustomers = customerRepository.findAll();
-        
-        if (allCustomers.isEmpty()) {
-            return "CUST001";
+        while (true) {
+            long number = sequenceAllocator.next(CUSTOMER_ID_SEQUENCE, customerIdBlockSize,
+                    () -> customerRepository.findMaxCustomerNumber() + 1);
+            String customerId = String.format("CUST%03d", number);
+            if (!customerRepository.existsByCustomerId(customerId)) {
+                return customerId;
+            }
         }
-        
-        // Find the highest customer ID number
-        int maxId = allCustomers.stream()
-                .map(Customer::getCustomerId)
-                .filter(custId -> custId != null && custId.matches("^CUST\\d+$"))
-                .map(custId -> {
-                    try {
-                        return Integer.parseInt(custId.substring(4));
-                    } catch (NumberFormatException e) {
-                        return 0;
-                    }
-                })
-                .max(Integer::compareTo)
-                .orElse(0);
-                
-        return String.format("CUST%03d", maxId + 1);
     }
 
-    // Report generation method
+    /**
+     * Customer report from the customer_stats snapshot (one row per membership level),
+     * or from a GROUP BY over customers while the snapshot is not available
+     */
+    @Transactional(readOnly = true)
     public Map<String, Object> generateCustomerReport() {
         Map<String, Object> report = new HashMap<>();
-        List<Customer> customers = customerRepository.findAll();
-        
+        long totalCustomers = 0;
+        long activeCustomers = 0;
+        long pointsTotal = 0;
+        long customersWithPoints = 0;
+        Map<String, Long> membershipCount = new HashMap<>();
+        for (Object[] row : customerStats.readRows()) {
+            String level = (String) row[0];
+            long count = (Long) row[1];
+            totalCustomers += count;
+            activeCustomers += (Long) row[2];
+            pointsTotal += (Long) row[3];
+            customersWithPoints += (Long) row[4];
+            if (count > 0 && !level.isEmpty()) {
+                membershipCount.merge(level, count, Long::sum);
+            }
+        }
+
         // Basic metrics
-        report.put("totalCustomers", customers.size());
-        report.put("activeCustomers", customers.stream().filter(Customer::getIsActive).count());
+        report.put("totalCustomers", totalCustomers);
+        report.put("activeCustomers", activeCustomers);
         
         // Membership breakdown
-        Map<String, Long> membershipCount = customers.stream()
-                .filter(c -> c.getMembershipLevel() != null)
-                .collect(java.util.stream.Collectors.groupingBy(
-                        Customer::getMembershipLevel, java.util.stream.Collectors.counting()));
         report.put("membershipBreakdown", membershipCount);
         
         // Loyalty points stats
-        double averagePoints = customers.stream()
-                .filter(c -> c.getLoyaltyPoints() != null)
-                .mapToInt(Customer::getLoyaltyPoints)
-                .average()
-                .orElse(0.0);
-        report.put("averageLoyaltyPoints", averagePoints);
+        report.put("averageLoyaltyPoints", customersWithPoints > 0 ? (double) pointsTotal / customersWithPoints : 0.0);
         
         report.put("generatedAt", LocalDateTime.now());
         
@@ -0,0 +1,173 @@
+package com.stockmanagement.service;
+
+import com.stockmanagement.entity.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * customer_stats: per membership level, how many customers there are, how many are active
+ * and how many loyalty points they hold. The customer report reads these few rows rather than
+ * every customer. CustomerService feeds it from create, update, delete and loyalty changes;
+ * unlike the sales rollup there is no range to repair, so the nightly check compares the
+ * whole table with a GROUP BY over customers and rebuilds it outright on any mismatch.
+ */
+@Service
+public class CustomerStatsService extends IncrementalAggregate<CustomerStatsService.Contribution> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerStatsService.class);
+
+    // Customers without a membership level are kept under this key (the column is the primary key)
+    private static final String NO_LEVEL = "";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO customer_stats (membership_level, customer_count, active_count, loyalty_points_total, loyalty_points_count) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "customer_count = customer_count + VALUES(customer_count), " +
+            "active_count = active_count + VALUES(active_count), " +
+            "loyalty_points_total = loyalty_points_total + VALUES(loyalty_points_total), " +
+            "loyalty_points_count = loyalty_points_count + VALUES(loyalty_points_count)";
+
+    // Same shape for both sources: [level, customers, active, points total, customers with points]
+    private static final String SNAPSHOT_SQL =
+            "SELECT membership_level, customer_count, active_count, loyalty_points_total, loyalty_points_count FROM customer_stats";
+
+    private static final String AGGREGATE_SQL =
+            "SELECT COALESCE(membership_level, ''), COUNT(*), COALESCE(SUM(is_active), 0), " +
+            "COALESCE(SUM(loyalty_points), 0), COUNT(loyalty_points) FROM customers GROUP BY COALESCE(membership_level, '')";
+
+    @Override
+    protected String tableName() {
+        return "customer_stats";
+    }
+
+    @Override
+    protected String sourceTableName() {
+        return "customers";
+    }
+
+    @Override
+    protected String createTableSql() {
+        return "CREATE TABLE IF NOT EXISTS customer_stats (" +
+                "membership_level VARCHAR(50) NOT NULL, customer_count BIGINT NOT NULL DEFAULT 0, " +
+                "active_count BIGINT NOT NULL DEFAULT 0, loyalty_points_total BIGINT NOT NULL DEFAULT 0, " +
+                "loyalty_points_count BIGINT NOT NULL DEFAULT 0, PRIMARY KEY (membership_level))";
+    }
+
+    // ===== PER-CUSTOMER DIFFERENCES =====
+
+    @Override
+    protected String contributionSql() {
+        return "SELECT membership_level, is_active, loyalty_points FROM customers WHERE id = ?";
+    }
+
+    @Override
+    protected RowMapper<Contribution> contributionMapper() {
+        return (rs, rowNum) -> new Contribution(rs.getString(1), rs.getBoolean(2), rs.getObject(3, Integer.class));
+    }
+
+    @Override
+    protected void add(Contribution contribution, int sign) {
+        jdbcTemplate.update(UPSERT_SQL,
+                contribution.level,
+                sign,
+                contribution.active ? sign : 0,
+                contribution.points != null ? (long) sign * contribution.points : 0L,
+                contribution.points != null ? sign : 0);
+    }
+
+    // ===== READS =====
+
+    /**
+     * Report rows: [String level (empty for none), Long customers, Long active, Long points total, Long customers with points].
+     * Reads the snapshot when it is available, otherwise aggregates customers in the database.
+     */
+    public List<Object[]> readRows() {
+        return jdbcTemplate.query(isReady() ? SNAPSHOT_SQL : AGGREGATE_SQL, (rs, rowNum) -> new Object[]{
+                rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)
+        });
+    }
+
+    // ===== FULL REBUILD, NIGHTLY CHECK =====
+
+    @Override
+    public int rebuildAll() {
+        Integer rows = rebuildTransaction().execute(status -> {
+            jdbcTemplate.update("DELETE FROM customer_stats");
+            return jdbcTemplate.update("INSERT INTO customer_stats " +
+                    "(membership_level, customer_count, active_count, loyalty_points_total, loyalty_points_count) " + AGGREGATE_SQL);
+        });
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Rebuild the table if any level's figures differ from a GROUP BY over customers
+     * @return Whether a rebuild was needed
+     */
+    @Scheduled(cron = "${customer.stats.reconcile-cron:0 45 2 * * *}")
+    public boolean reconcile() {
+        if (!isReady()) {
+            return false;
+        }
+        Map<String, List<Long>> expected = new HashMap<>();
+        jdbcTemplate.query(AGGREGATE_SQL, rs -> {
+            expected.put(rs.getString(1), List.of(rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)));
+        });
+        Map<String, List<Long>> actual = new HashMap<>();
+        jdbcTemplate.query(SNAPSHOT_SQL, rs -> {
+            // Levels emptied by updates and deletes legitimately stay behind with zero counts
+            if (rs.getLong(2) != 0 || rs.getLong(3) != 0 || rs.getLong(4) != 0 || rs.getLong(5) != 0) {
+                actual.put(rs.getString(1), List.of(rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)));
+            }
+        });
+        if (expected.equals(actual)) {
+            return false;
+        }
+        logger.warn("Customer stats drifted from customers, rebuilding");
+        rebuildAll();
+        return true;
+    }
+
+    /**
+     * The part of one customer counted in the stats: membership level, active flag and points
+     */
+    public static final class Contribution {
+        private final String level;
+        private final boolean active;
+        private final Integer points;
+
+        public Contribution(String level, boolean active, Integer points) {
+            this.level = level != null ? level : NO_LEVEL;
+            this.active = active;
+            this.points = points;
+        }
+
+        public static Contribution of(Customer customer) {
+            return new Contribution(customer.getMembershipLevel(),
+                    Boolean.TRUE.equals(customer.getIsActive()), customer.getLoyaltyPoints());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Contribution other)) {
+                return false;
+            }
+            return level.equals(other.level) && active == other.active && Objects.equals(points, other.points);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(level, active, points);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.stockmanagement.service;
+
+import com.stockmanagement.observer.StockChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Live inventory aggregates for the dashboard: low stock count, out of stock count and
+ * total inventory value. Seeded from one aggregate query at startup and then kept current
+ * from the stock changes every item write publishes (stock movements, form edits, creates and
+ * deletes), so reading them is O(1). The value is held as whole cents in a LongAdder, which keeps
+ * it exact (no double rounding drift) and safe under concurrent updates.
+ * The aggregates are re-seeded on dashboard.stats.reconcile-cron (default every 15 minutes) to
+ * correct drift from rows changed outside the application.
+ *
+ * Changes reach this class some time after they commit, so a seed query can already include
+ * changes that are still on their way. While a seed runs, changes are therefore held per item
+ * instead of counted. In the same database snapshot as the aggregate, the seed reads the
+ * current row of every held item. That row shows how much of the item's held changes the
+ * aggregate already includes, and only the rest is added. Items first held after those reads
+ * had no change in the snapshot, so all of their held changes are added.
+ */
+@Component
+public class DashboardStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatistics.class);
+
+    // Items with less than this many units (but more than zero) count as low stock
+    public static final int LOW_STOCK_THRESHOLD = 5;
+
+    private static final String SEED_SQL =
+            "SELECT COALESCE(SUM(CASE WHEN quantity > 0 AND quantity < ? THEN 1 ELSE 0 END), 0) AS low_stock, " +
+            "COALESCE(SUM(CASE WHEN quantity <= 0 THEN 1 ELSE 0 END), 0) AS out_of_stock, " +
+            "COALESCE(SUM(ROUND(price * 100) * quantity), 0) AS value_cents " +
+            "FROM item";
+
+    // Rounds of reading newly held items before the seed is swapped in
+    private static final int MAX_HELD_READ_ROUNDS = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LongAdder lowStockItems = new LongAdder();
+    private final LongAdder outOfStockItems = new LongAdder();
+    private final LongAdder inventoryValueCents = new LongAdder();
+    // Changes are applied under the read lock; the write lock is only held to start holding
+    // changes and to swap a finished seed in, never while querying
+    private final ReentrantReadWriteLock seedLock = new ReentrantReadWriteLock();
+    // Non-null while a seed runs: changes are collected here per item instead of counted
+    private volatile Map<Long, HeldItem> held;
+    private volatile boolean seeded;
+
+    /**
+     * Load the aggregates from the item table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        Map<Long, HeldItem> holding = new ConcurrentHashMap<>();
+        seedLock.writeLock().lock();
+        try {
+            if (held != null) {
+                // Another seed is running and will correct the same drift
+                return;
+            }
+            held = holding;
+        } finally {
+            seedLock.writeLock().unlock();
+        }
+
+        Seed seed = null;
+        try {
+            TransactionTemplate snapshotRead = new TransactionTemplate(transactionManager);
+            snapshotRead.setReadOnly(true);
+            // Every read of the seed sees the snapshot taken by the first one
+            snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            seed = snapshotRead.execute(status -> readSeed(holding));
+        } catch (Exception e) {
+            logger.error("Could not seed dashboard statistics", e);
+        }
+
+        seedLock.writeLock().lock();
+        try {
+            held = null;
+            if (seed != null) {
+                // Replace, rather than add to, whatever the counters held before seeding
+                long low = seed.totals.low;
+                long out = seed.totals.out;
+                long value = seed.totals.valueCents;
+                for (Map.Entry<Long, HeldItem> entry : holding.entrySet()) {
+                    Contribution correction = entry.getValue().correction(seed.items.get(entry.getKey()));
+                    low += correction.low;
+                    out += correction.out;
+                    value += correction.valueCents;
+                }
+                reset(lowStockItems, low);
+                reset(outOfStockItems, out);
+                reset(inventoryValueCents, value);
+                seeded = true;
+            } else {
+                // Keep counting from where the counters were
+                for (HeldItem item : holding.values()) {
+                    add(item.delta());
+                }
+            }
+        } finally {
+            seedLock.writeLock().unlock();
+        }
+        if (seed != null) {
+            logger.info("Dashboard statistics seeded: {}", getDashboardStats());
+        }
+    }
+
+    /**
+     * Re-seed from the item table, correcting any drift of the running totals
+     */
+    @Scheduled(cron = "${dashboard.stats.reconcile-cron:0 */15 * * * *}")
+    public void reconcile() {
+        seed();
+    }
+
+    /**
+     * Apply one stock change to the aggregates
+     */
+    public void apply(StockChange change) {
+        // A created item was in no bucket before, a removed one is in none afterwards
+        Contribution before = change.getKind() != StockChange.Kind.CREATED
+                ? Contribution.of(change.getOldQuantity(), change.getOldPrice()) : Contribution.NONE;
+        Contribution after = change.getKind() != StockChange.Kind.REMOVED
+                ? Contribution.of(change.getNewQuantity(), change.getPrice()) : Contribution.NONE;
+
+        seedLock.readLock().lock();
+        try {
+            Map<Long, HeldItem> holding = held;
+            if (holding != null && change.getItemId() != null) {
+                holding.computeIfAbsent(change.getItemId(), id -> new HeldItem()).add(before, after);
+            } else {
+                add(after.minus(before));
+            }
+        } finally {
+            seedLock.readLock().unlock();
+        }
+    }
+
+    public long getLowStockItemsCount() {
+        return lowStockItems.sum();
+    }
+
+    public long getOutOfStockItemsCount() {
+        return outOfStockItems.sum();
+    }
+
+    public BigDecimal getTotalInventoryValue() {
+        return BigDecimal.valueOf(inventoryValueCents.sum(), 2);
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Current statistics as a map, for the dashboard API
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lowStockItems", getLowStockItemsCount());
+        stats.put("outOfStockItems", getOutOfStockItemsCount());
+        stats.put("totalInventoryValue", getTotalInventoryValue());
+        stats.put("seeded", seeded);
+        return stats;
+    }
+
+    public String getDashboardStats() {
+        return String.format("Low Stock: %d | Out of Stock: %d | Total Value: $%s",
+                getLowStockItemsCount(), getOutOfStockItemsCount(), getTotalInventoryValue().toPlainString());
+    }
+
+    /**
+     * The aggregate and the rows of the held items, all from one snapshot. Items held while
+     * the rows are read are read too, for a bounded number of rounds.
+     */
+    private Seed readSeed(Map<Long, HeldItem> holding) {
+        Contribution totals = jdbcTemplate.queryForObject(SEED_SQL, (rs, rowNum) -> new Contribution(
+                rs.getLong("low_stock"), rs.getLong("out_of_stock"), rs.getLong("value_cents")), LOW_STOCK_THRESHOLD);
+        Map<Long, Contribution> items = new HashMap<>();
+        for (int round = 0; round < MAX_HELD_READ_ROUNDS; round++) {
+            List<Long> unread = new ArrayList<>();
+            for (Long id : holding.keySet()) {
+                if (!items.containsKey(id)) {
+                    unread.add(id);
+                }
+            }
+            if (unread.isEmpty()) {
+                break;
+            }
+            for (Long id : unread) {
+                // Stays NONE if the item was not in the snapshot
+                items.put(id, Contribution.NONE);
+            }
+            jdbcTemplate.query("SELECT id, quantity, price FROM item WHERE id IN (" +
+                    String.join(",", Collections.nCopies(unread.size(), "?")) + ")", rs -> {
+                items.put(rs.getLong(1), Contribution.of(rs.getInt(2), rs.getBigDecimal(3)));
+            }, unread.toArray());
+        }
+        return new Seed(totals, items);
+    }
+
+    private void add(Contribution delta) {
+        if (delta.low != 0) {
+            lowStockItems.add(delta.low);
+        }
+        if (delta.out != 0) {
+            outOfStockItems.add(delta.out);
+        }
+        if (delta.valueCents != 0) {
+            inventoryValueCents.add(delta.valueCents);
+        }
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static void reset(LongAdder adder, long value) {
+        adder.add(value - adder.sum());
+    }
+
+    /**
+     * What one item adds to the aggregates (or a difference of that)
+     */
+    private static final class Contribution {
+        private static final Contribution NONE = new Contribution(0, 0, 0);
+
+        private final long low;
+        private final long out;
+        private final long valueCents;
+
+        private Contribution(long low, long out, long valueCents) {
+            this.low = low;
+            this.out = out;
+            this.valueCents = valueCents;
+        }
+
+        private static Contribution of(int quantity, BigDecimal price) {
+            return new Contribution(
+                    quantity > 0 && quantity < LOW_STOCK_THRESHOLD ? 1 : 0,
+                    quantity <= 0 ? 1 : 0,
+                    price != null && quantity != 0 ? toCents(price) * quantity : 0);
+        }
+
+        private Contribution plus(Contribution other) {
+            return new Contribution(low + other.low, out + other.out, valueCents + other.valueCents);
+        }
+
+        private Contribution minus(Contribution other) {
+            return new Contribution(low - other.low, out - other.out, valueCents - other.valueCents);
+        }
+    }
+
+    /**
+     * The changes of one item that arrived while a seed ran
+     */
+    private static final class HeldItem {
+        private Contribution latest;
+        private Contribution delta = Contribution.NONE;
+
+        private synchronized void add(Contribution before, Contribution after) {
+            latest = after;
+            delta = delta.plus(after.minus(before));
+        }
+
+        private synchronized Contribution delta() {
+            return delta;
+        }
+
+        /**
+         * What to add to the seed for this item
+         * @param inSnapshot The item's contribution in the seed's snapshot, or null if it was not read
+         */
+        private synchronized Contribution correction(Contribution inSnapshot) {
+            // Read in the snapshot: the aggregate already counts it as it was then
+            return inSnapshot != null ? latest.minus(inSnapshot) : delta;
+        }
+    }
+
+    private static final class Seed {
+        private final Contribution totals;
+        private final Map<Long, Contribution> items;
+
+        private Seed(Contribution totals, Map<Long, Contribution> items) {
+            this.totals = totals;
+            this.items = items;
+        }
+    }
+}
@@ -1,31 +1,47 @@
 package com.stockmanagement.service;
 
+import com.stockmanagement.config.ReferenceCacheConfig;
+import com.stockmanagement.entity.Item;
+import com.stockmanagement.observer.StockChange;
 import com.stockmanagement.repository.ItemRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 @Service
 public class DeleteItemService {
 
     private final ItemRepository repository;
+    // ItemService depends on this service, so it is looked up on use
+    private final ObjectProvider<ItemService> itemService;
     
     @PersistenceContext
     private EntityManager entityManager;
 
-    public DeleteItemService(ItemRepository repository) {
+    public DeleteItemService(ItemRepository repository, ObjectProvider<ItemService> itemService) {
         this.repository = repository;
+        this.itemService = itemService;
     }
 
     @Transactional
+    @Caching(evict = {
+            // The native deletes below bypass the discount and promotion services
+            @CacheEvict(cacheNames = ReferenceCacheConfig.DISCOUNTS, allEntries = true),
+            @CacheEvict(cacheNames = ReferenceCacheConfig.DISCOUNT_QUERIES, allEntries = true),
+            @CacheEvict(cacheNames = ReferenceCacheConfig.PROMOTIONS, allEntries = true),
+            @CacheEvict(cacheNames = ReferenceCacheConfig.PROMOTION_QUERIES, allEntries = true)
+    })
     public void deleteItem(int id) {
         Long itemId = (long) id;
         
-        // First, check if item exists
-        if (!repository.existsById(itemId)) {
-            throw new RuntimeException("Item not found with ID: " + id);
-        }
+        // First, check if item exists; the lock keeps the quantity reported below current
+        Item item = repository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new RuntimeException("Item not found with ID: " + id));
+        StockChange removal = StockChange.removed(item);
         
         // Delete related records first to avoid foreign key constraint
         
@@ -46,5 +62,8 @@ public class DeleteItemService {
         
         // Finally, delete the item itself
         repository.deleteById(itemId);
+        
+        // Published after commit; the catalog cache drops the item when it finds the row gone
+        itemService.getObject().publishStockChange(removal);
     }
 }
\ No newline at end of file
@@ -1,15 +1,21 @@
 package com.stockmanagement.service;
 
+import com.stockmanagement.config.ReferenceCacheConfig;
 import com.stockmanagement.dto.DiscountDTO;
 import com.stockmanagement.entity.Discount;
 import com.stockmanagement.entity.Item;
 import com.stockmanagement.repository.DiscountRepository;
 import com.stockmanagement.repository.ItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,58 +25,94 @@ public class DiscountService {
 
     private final DiscountRepository discountRepository;
     private final ItemRepository itemRepository;
+    private final ItemCatalogCache catalog;
+    private final EffectivePriceIndex priceIndex;
+    private final ActivationIndex activationIndex;
 
     @Autowired
-    public DiscountService(DiscountRepository discountRepository, ItemRepository itemRepository) {
+    public DiscountService(DiscountRepository discountRepository, ItemRepository itemRepository,
+                           ItemCatalogCache catalog, EffectivePriceIndex priceIndex,
+                           ActivationIndex activationIndex) {
         this.discountRepository = discountRepository;
         this.itemRepository = itemRepository;
+        this.catalog = catalog;
+        this.priceIndex = priceIndex;
+        this.activationIndex = activationIndex;
     }
 
+    @Cacheable(cacheNames = ReferenceCacheConfig.DISCOUNT_QUERIES, key = "'all'")
     public List<DiscountDTO> getAllDiscounts() {
         return discountRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = ReferenceCacheConfig.DISCOUNT_QUERIES, key = "'active'")
     public List<DiscountDTO> getActiveDiscounts() {
         return discountRepository.findByActiveTrue().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    // Keyed by date, so the cached answer never outlives the day it was computed for
+    @Cacheable(cacheNames = ReferenceCacheConfig.DISCOUNT_QUERIES, key = "'current:' + T(java.time.LocalDate).now()")
     public List<DiscountDTO> getCurrentlyActiveDiscounts() {
-        LocalDate today = LocalDate.now();
-        return discountRepository.findCurrentlyActiveDiscounts(today).stream()
+        List<Long> ids = activationIndex.activeDiscountIds(LocalDate.now());
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return discountRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Discount::getId))
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = ReferenceCacheConfig.DISCOUNTS, key = "#id")
     public Optional<DiscountDTO> getDiscountById(Long id) {
         return discountRepository.findById(id)
                 .map(this::convertToDTO);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ReferenceCacheConfig.DISCOUNT_QUERIES, allEntries = true)
     public DiscountDTO createDiscount(DiscountDTO discountDTO) {
         Discount discount = new Discount();
         updateDiscountFromDTO(discount, discountDTO);
         Discount savedDiscount = discountRepository.save(discount);
+        refreshCatalog(savedDiscount.getItem());
+        reindex(savedDiscount.getId());
         return convertToDTO(savedDiscount);
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ReferenceCacheConfig.DISCOUNTS, key = "#id"),
+            @CacheEvict(cacheNames = ReferenceCacheConfig.DISCOUNT_QUERIES, allEntries = true)
+    })
     public Optional<DiscountDTO> updateDiscount(Long id, DiscountDTO discountDTO) {
         return discountRepository.findById(id)
                 .map(existingDiscount -> {
+                    // The discount may move to another item: both cached items change price
+                    refreshCatalog(existingDiscount.getItem());
                     updateDiscountFromDTO(existingDiscount, discountDTO);
-                    return convertToDTO(discountRepository.save(existingDiscount));
+                    Discount savedDiscount = discountRepository.save(existingDiscount);
+                    refreshCatalog(savedDiscount.getItem());
+                    reindex(id);
+                    return convertToDTO(savedDiscount);
                 });
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ReferenceCacheConfig.DISCOUNTS, key = "#id"),
+            @CacheEvict(cacheNames = ReferenceCacheConfig.DISCOUNT_QUERIES, allEntries = true)
+    })
     public boolean deleteDiscount(Long id) {
-        if (discountRepository.existsById(id)) {
+        Optional<Discount> discount = discountRepository.findById(id);
+        if (discount.isPresent()) {
             discountRepository.deleteById(id);
+            refreshCatalog(discount.get().getItem());
+            reindex(id);
             return true;
         }
         return false;
@@ -82,12 +124,30 @@ public class DiscountService {
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = ReferenceCacheConfig.DISCOUNT_QUERIES, key = "'item:' + #itemId")
     public List<DiscountDTO> getDiscountsForItem(Long itemId) {
         return discountRepository.findByItemId(itemId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Re-read the discounted item in the catalog cache once this transaction commits
+     */
+    private void refreshCatalog(Item item) {
+        if (item != null && item.getId() != null) {
+            catalog.refresh(item.getId());
+        }
+    }
+
+    /**
+     * Update the activation window, then the prices built from it, once this transaction commits
+     */
+    private void reindex(Long discountId) {
+        activationIndex.discountChanged(discountId);
+        priceIndex.rebuildAfterCommit();
+    }
+
     private DiscountDTO convertToDTO(Discount discount) {
         DiscountDTO dto = new DiscountDTO();
         dto.setId(discount.getId());
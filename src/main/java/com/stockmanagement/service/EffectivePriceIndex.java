@@ -0,0 +1,183 @@
+package com.stockmanagement.service;
+
+import com.stockmanagement.entity.Discount;
+import com.stockmanagement.repository.DiscountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Best discounted price per item for the current day, so the item catalog can price items
+ * with a map lookup instead of a walk over the lazily loaded discounts. Built from the discounts the
+ * ActivationIndex reports active today (loaded by id in one query); rebuilt at midnight and after every discount create, update or
+ * delete commits. If the day rolls over before the midnight job has run, the next lookup
+ * rebuilds it first.
+ */
+@Component
+public class EffectivePriceIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EffectivePriceIndex.class);
+
+    private final DiscountRepository discountRepository;
+    private final ActivationIndex activationIndex;
+    private final TransactionTemplate readTransaction;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public EffectivePriceIndex(DiscountRepository discountRepository, ActivationIndex activationIndex,
+                               PlatformTransactionManager transactionManager) {
+        this.discountRepository = discountRepository;
+        this.activationIndex = activationIndex;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Price of the item after its best discount active today
+     * @param itemId Item id
+     * @param basePrice The item's list price
+     */
+    public BigDecimal priceFor(long itemId, BigDecimal basePrice) {
+        Snapshot current = currentSnapshot();
+        Entry entry = current.byItem.get(itemId);
+        if (entry == null || basePrice == null) {
+            return basePrice;
+        }
+        if (entry.basePrice.compareTo(basePrice) == 0) {
+            return entry.bestPrice;
+        }
+        // The list price changed since the build: apply the same discounts to the new price
+        return bestPrice(entry.discounts, basePrice);
+    }
+
+    /**
+     * Whether any discount applies to the item today
+     */
+    public boolean hasDiscount(long itemId) {
+        return currentSnapshot().byItem.containsKey(itemId);
+    }
+
+    public int getDiscountedItemCount() {
+        return currentSnapshot().byItem.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${pricing.index.rebuild-cron:0 0 0 * * *}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            snapshot = build(LocalDate.now());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild once the current transaction commits (immediately if there is none)
+     */
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() < current.validUntilMillis) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            current = snapshot;
+            if (current == null || System.currentTimeMillis() >= current.validUntilMillis) {
+                current = build(LocalDate.now());
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot build(LocalDate day) {
+        // The activation index already knows which discounts apply today: load only those rows
+        List<Long> ids = activationIndex.activeDiscountIds(day);
+        List<Discount> discounts = ids.isEmpty() ? new ArrayList<>()
+                : readTransaction.execute(status -> discountRepository.findAllById(ids));
+        LongKeyedMap<Entry> byItem = new LongKeyedMap<>();
+        for (Discount discount : discounts) {
+            if (discount.getItem() == null || discount.getItem().getId() == null || discount.getItem().getPrice() == null) {
+                continue;
+            }
+            long itemId = discount.getItem().getId();
+            Entry entry = byItem.get(itemId);
+            if (entry == null) {
+                entry = new Entry(discount.getItem().getPrice());
+                byItem.put(itemId, entry);
+            }
+            entry.discounts.add(discount);
+        }
+        byItem.forEachValue(entry -> entry.bestPrice = bestPrice(entry.discounts, entry.basePrice));
+
+        long validUntil = day.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        logger.info("Effective price index built for {}: {} discounted items", day, byItem.size());
+        return new Snapshot(byItem, validUntil);
+    }
+
+    /**
+     * Lowest price among the discounts (the largest discount wins), never below zero
+     */
+    private static BigDecimal bestPrice(List<Discount> discounts, BigDecimal basePrice) {
+        BigDecimal best = basePrice;
+        for (Discount discount : discounts) {
+            BigDecimal discounted = discount.applyTo(basePrice);
+            if (discounted.compareTo(best) < 0) {
+                best = discounted;
+            }
+        }
+        return best.max(BigDecimal.ZERO);
+    }
+
+    private static final class Snapshot {
+        private final LongKeyedMap<Entry> byItem;
+        private final long validUntilMillis;
+
+        private Snapshot(LongKeyedMap<Entry> byItem, long validUntilMillis) {
+            this.byItem = byItem;
+            this.validUntilMillis = validUntilMillis;
+        }
+    }
+
+    private static final class Entry {
+        private final BigDecimal basePrice;
+        private final List<Discount> discounts = new ArrayList<>(1);
+        private BigDecimal bestPrice;
+
+        private Entry(BigDecimal basePrice) {
+            this.basePrice = basePrice;
+        }
+    }
+}
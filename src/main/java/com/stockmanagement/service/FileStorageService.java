@@ -18,6 +18,11 @@ public class FileStorageService {
     @Value("${file.upload.dir:./uploads}")
     private String uploadDir;
 
+    // Derived image variants live next to the original: photo.png -> photo_thumb.jpg, photo_web.jpg
+    public static final String THUMBNAIL_SUFFIX = "_thumb";
+    public static final String WEB_SUFFIX = "_web";
+    private static final String VARIANT_EXTENSION = ".jpg";
+
     /**
      * Stores a file in the specified directory
      * 
@@ -58,10 +63,34 @@ public class FileStorageService {
      */
     public boolean deleteFile(String relativePath) {
         try {
-            Path filePath = Paths.get(uploadDir + File.separator + relativePath);
+            Path filePath = resolve(relativePath);
+            // Variants of an image go with it; most files have none
+            Files.deleteIfExists(resolve(variantPath(relativePath, THUMBNAIL_SUFFIX)));
+            Files.deleteIfExists(resolve(variantPath(relativePath, WEB_SUFFIX)));
             return Files.deleteIfExists(filePath);
         } catch (IOException e) {
             return false;
         }
     }
+
+    /**
+     * Relative path of a derived variant of a stored file, in the same directory
+     *
+     * @param relativePath The relative path of the original file
+     * @param suffix THUMBNAIL_SUFFIX or WEB_SUFFIX
+     * @return The relative path of the variant (which may not exist yet)
+     */
+    public String variantPath(String relativePath, String suffix) {
+        int slash = relativePath.lastIndexOf('/');
+        int dot = relativePath.lastIndexOf('.');
+        String base = dot > slash ? relativePath.substring(0, dot) : relativePath;
+        return base + suffix + VARIANT_EXTENSION;
+    }
+
+    /**
+     * Location on disk of a relative path returned by storeFile
+     */
+    public Path resolve(String relativePath) {
+        return Paths.get(uploadDir + File.separator + relativePath);
+    }
 }
\ No newline at end of file
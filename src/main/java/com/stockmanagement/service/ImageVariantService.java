@@ -0,0 +1,305 @@
+package com.stockmanagement.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces the smaller copies of uploaded photos that pages actually show: a thumbnail for
+ * list pages and a web-sized JPEG for detail pages, written next to the original by
+ * FileStorageService.variantPath. Work runs on a small bounded pool so uploads return as
+ * soon as the original is stored. A photo's photo_thumbnail_url stays null (pages show the
+ * original) until its thumbnail file has been written; only then is the path recorded on
+ * the row. Jobs refused by a full queue, or finished before the row was saved, are picked
+ * up by a periodic backfill of photos that still have no thumbnail.
+ *
+ * Configuration:
+ *   image.thumbnail.max-size       - longest side of thumbnails in pixels (default 200)
+ *   image.web.max-size             - longest side of web copies in pixels (default 1280)
+ *   image.jpeg-quality             - JPEG quality between 0 and 1 (default 0.8)
+ *   image.max-pixels               - larger images are not decoded (default 25000000)
+ *   image.pipeline.threads         - worker threads (default 2)
+ *   image.pipeline.queue-capacity  - jobs waiting before new ones are refused (default 100)
+ *   image.pipeline.backfill-cron   - when photos without a thumbnail are retried (default every 10 minutes)
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    // Tables whose photo_url / photo_thumbnail_url columns refer to photos handled here
+    private static final List<String> PHOTO_TABLES = List.of("customers", "staff");
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${image.thumbnail.max-size:200}")
+    private int thumbnailMaxSize;
+
+    @Value("${image.web.max-size:1280}")
+    private int webMaxSize;
+
+    @Value("${image.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${image.max-pixels:25000000}")
+    private long maxPixels;
+
+    @Value("${image.pipeline.threads:2}")
+    private int threads;
+
+    @Value("${image.pipeline.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor workers;
+
+    // Photos queued or being processed, so the backfill does not queue them twice
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    // Photos no variant can be made of (unreadable or too large), skipped until restart
+    private final Set<String> unprocessable = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdown();
+    }
+
+    /**
+     * Queue the thumbnail and web copy of a stored photo and return straight away. Call it
+     * after the row referring to the photo has been saved: the thumbnail path is written to
+     * that row once the file exists.
+     *
+     * @param relativePath The relative path returned by FileStorageService.storeFile
+     */
+    public void scheduleVariants(String relativePath) {
+        if (!submit(relativePath)) {
+            logger.warn("Image pipeline queue full, {} will get its variants from the backfill", relativePath);
+        }
+    }
+
+    /**
+     * Queue every photo that has no recorded thumbnail yet: recording it straight away when
+     * the file is already there, generating it otherwise. Stops at the first refused job;
+     * the rest wait for the next run.
+     */
+    @Scheduled(cron = "${image.pipeline.backfill-cron:0 */10 * * * *}")
+    public void backfill() {
+        int queued = 0;
+        for (String table : PHOTO_TABLES) {
+            List<String> photos = jdbcTemplate.queryForList("SELECT photo_url FROM " + table +
+                    " WHERE photo_url IS NOT NULL AND photo_thumbnail_url IS NULL", String.class);
+            for (String relativePath : photos) {
+                if (inProgress.contains(relativePath) || unprocessable.contains(relativePath)) {
+                    continue;
+                }
+                String thumbnail = fileStorageService.variantPath(relativePath, FileStorageService.THUMBNAIL_SUFFIX);
+                if (Files.exists(fileStorageService.resolve(thumbnail))) {
+                    recordThumbnail(relativePath);
+                } else if (Files.exists(fileStorageService.resolve(relativePath))) {
+                    if (!submit(relativePath)) {
+                        logger.info("Image backfill queued {} photo(s), the rest wait for the next run", queued);
+                        return;
+                    }
+                    queued++;
+                }
+            }
+        }
+        if (queued > 0) {
+            logger.info("Image backfill queued {} photo(s)", queued);
+        }
+    }
+
+    /**
+     * Relative path of the web-sized copy of a photo, for use in templates
+     */
+    public String webPath(String relativePath) {
+        return fileStorageService.variantPath(relativePath, FileStorageService.WEB_SUFFIX);
+    }
+
+    /**
+     * @return false if the queue is full
+     */
+    private boolean submit(String relativePath) {
+        if (!inProgress.add(relativePath)) {
+            return true;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(relativePath);
+                } finally {
+                    inProgress.remove(relativePath);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inProgress.remove(relativePath);
+            return false;
+        }
+    }
+
+    private void generate(String relativePath) {
+        try {
+            BufferedImage original = read(fileStorageService.resolve(relativePath));
+            if (original == null) {
+                // Pages keep showing the original
+                unprocessable.add(relativePath);
+                return;
+            }
+            // Thumbnail first, since list pages are waiting on it
+            write(scale(original, thumbnailMaxSize), FileStorageService.THUMBNAIL_SUFFIX, relativePath);
+            recordThumbnail(relativePath);
+            write(scale(original, webMaxSize), FileStorageService.WEB_SUFFIX, relativePath);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not create image variants for {}", relativePath, e);
+        }
+    }
+
+    /**
+     * Decode an image, checking its dimensions from the header first so an upload that
+     * declares a huge canvas cannot exhaust the heap
+     * @return The image, or null if it is not readable or larger than image.max-pixels
+     */
+    private BufferedImage read(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                logger.debug("No image variants for {}: not a readable image", file);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    logger.warn("No image variants for {}: {} pixels exceeds image.max-pixels ({})", file, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Point the rows showing this photo at its thumbnail, now that the file exists. Rows
+     * not saved yet are left to the backfill.
+     */
+    private void recordThumbnail(String relativePath) {
+        String thumbnail = fileStorageService.variantPath(relativePath, FileStorageService.THUMBNAIL_SUFFIX);
+        for (String table : PHOTO_TABLES) {
+            jdbcTemplate.update("UPDATE " + table + " SET photo_thumbnail_url = ? " +
+                    "WHERE photo_url = ? AND photo_thumbnail_url IS NULL", thumbnail, relativePath);
+        }
+    }
+
+    /**
+     * Fit the image within maxSize x maxSize, never enlarging it, on an opaque RGB canvas
+     * (JPEG has no alpha). Large reductions are done in halving steps, which keeps
+     * bilinear filtering sharp without the cost of area-averaging the full image.
+     */
+    private static BufferedImage scale(BufferedImage source, int maxSize) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Write a JPEG variant through a temporary file, so a page never loads a half-written image
+     */
+    private void write(BufferedImage image, String suffix, String relativePath) throws IOException {
+        Path target = fileStorageService.resolve(fileStorageService.variantPath(relativePath, suffix));
+        Path temp = Files.createTempFile(target.getParent(), "variant", ".tmp");
+        try {
+            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+            if (!writers.hasNext()) {
+                throw new IOException("No JPEG writer available");
+            }
+            ImageWriter writer = writers.next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.stockmanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A summary table maintained by differences instead of being recomputed.
+ *
+ * A writer reads the row's stored contribution (locked until its transaction ends), saves the
+ * row, and applies the difference between the old and the new contribution in the same
+ * transaction. Concurrent writers of one row therefore queue on the lock, and each one sees the
+ * previous writer's result as its "before". Subclasses define the table, how one source row
+ * contributes to it, and how drift is detected; creating the table, the startup backfill and
+ * the transaction used by rebuilds are shared here.
+ *
+ * @param <C> What one source row contributes to the table
+ */
+public abstract class IncrementalAggregate<C> {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalAggregate.class);
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // False until the startup check has made sure the table exists and is filled
+    private volatile boolean ready;
+
+    /**
+     * Whether reads can use the summary table instead of aggregating the source table
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Name of the summary table, used in the startup checks and in log messages
+     */
+    protected abstract String tableName();
+
+    /**
+     * Name of the table the summary is computed from, used in log messages
+     */
+    protected abstract String sourceTableName();
+
+    /**
+     * CREATE TABLE IF NOT EXISTS statement for the summary table
+     */
+    protected abstract String createTableSql();
+
+    /**
+     * SELECT of one source row by id (a single ? parameter), read by {@link #contributionMapper()}
+     */
+    protected abstract String contributionSql();
+
+    protected abstract RowMapper<C> contributionMapper();
+
+    /**
+     * Add (sign 1) or remove (sign -1) one contribution to the summary table
+     */
+    protected abstract void add(C contribution, int sign);
+
+    /**
+     * Recompute the whole summary table from the source table, in {@link #rebuildTransaction()}
+     * @return Number of summary rows written
+     */
+    public abstract int rebuildAll();
+
+    // ===== INCREMENTAL MAINTENANCE =====
+
+    /**
+     * What a source row, as currently stored in the database, contributes to the summary.
+     * Read with plain JDBC, so unflushed changes to the managed entity are not seen, and
+     * FOR UPDATE, so the row stays locked until the caller's transaction ends.
+     * @return The stored contribution, or null if the row does not exist
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public C storedContribution(Long id) {
+        List<C> rows = jdbcTemplate.query(contributionSql() + " FOR UPDATE", contributionMapper(), id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Add the difference between a row's old and new contribution to the summary.
+     * Runs in the caller's transaction, so the summary commits or rolls back with the row.
+     * @param before Contribution before the change, or null for a new row
+     * @param after Contribution after the change, or null for a deleted row
+     */
+    public void apply(C before, C after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            add(before, -1);
+        }
+        if (after != null) {
+            add(after, 1);
+        }
+    }
+
+    // ===== BACKFILL AND REBUILD =====
+
+    /**
+     * Create the table if needed and backfill it when it is empty. Until this succeeds,
+     * {@link #isReady()} stays false and readers fall back to the source table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            jdbcTemplate.execute(createTableSql());
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM (SELECT 1 FROM " + tableName() + " LIMIT 1) r", Integer.class);
+            if (rows != null && rows == 0) {
+                logger.info("{} backfilled from {}: {} rows", tableName(), sourceTableName(), rebuildAll());
+            }
+            ready = true;
+        } catch (Exception e) {
+            logger.error("{} unavailable, reads will aggregate {} directly", tableName(), sourceTableName(), e);
+        }
+    }
+
+    /**
+     * Rebuilds delete and re-insert in one transaction of their own, so readers never see a gap
+     */
+    protected TransactionTemplate rebuildTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+}
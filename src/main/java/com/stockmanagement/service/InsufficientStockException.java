@@ -0,0 +1,81 @@
+package com.stockmanagement.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when one or more bill lines cannot be reserved from stock.
+ * Carries a shortfall entry for every failing line so the caller can report them all at once.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<Shortfall> shortfalls;
+
+    public InsufficientStockException(List<Shortfall> shortfalls) {
+        super(buildMessage(shortfalls));
+        this.shortfalls = Collections.unmodifiableList(new ArrayList<>(shortfalls));
+    }
+
+    public List<Shortfall> getShortfalls() {
+        return shortfalls;
+    }
+
+    private static String buildMessage(List<Shortfall> shortfalls) {
+        StringBuilder message = new StringBuilder("Insufficient stock for ")
+                .append(shortfalls.size()).append(shortfalls.size() == 1 ? " line: " : " lines: ");
+        for (int i = 0; i < shortfalls.size(); i++) {
+            if (i > 0) {
+                message.append("; ");
+            }
+            message.append(shortfalls.get(i));
+        }
+        return message.toString();
+    }
+
+    /**
+     * One bill line that could not be reserved
+     */
+    public static class Shortfall {
+        private final int lineNumber;
+        private final Long productId;
+        private final String productName;
+        private final int requested;
+        private final int available;
+
+        public Shortfall(int lineNumber, Long productId, String productName, int requested, int available) {
+            this.lineNumber = lineNumber;
+            this.productId = productId;
+            this.productName = productName;
+            this.requested = requested;
+            this.available = available;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public String getProductName() {
+            return productName;
+        }
+
+        public int getRequested() {
+            return requested;
+        }
+
+        public int getAvailable() {
+            return available;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + " - " + productName +
+                    ". Available: " + available +
+                    ", Requested: " + requested;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.stockmanagement.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable centered interval tree over closed [start, end] ranges of long points
+ * (for example epoch days). A stabbing query ("which intervals contain p?") runs in
+ * O(log n + k) for k matches. Build once with {@link #of(List)}; rebuild to change.
+ */
+public final class IntervalIndex<T> {
+
+    /**
+     * One closed interval and the value it carries
+     */
+    public static final class Interval<T> {
+        private final long start;
+        private final long end;
+        private final T value;
+
+        public Interval(long start, long end, T value) {
+            if (end < start) {
+                throw new IllegalArgumentException("Interval end " + end + " is before start " + start);
+            }
+            this.start = start;
+            this.end = end;
+            this.value = value;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+
+    private static final IntervalIndex<?> EMPTY = new IntervalIndex<>(null, 0);
+
+    private final Node<T> root;
+    private final int size;
+
+    private IntervalIndex(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> IntervalIndex<T> empty() {
+        return (IntervalIndex<T>) EMPTY;
+    }
+
+    public static <T> IntervalIndex<T> of(List<Interval<T>> intervals) {
+        if (intervals.isEmpty()) {
+            return empty();
+        }
+        return new IntervalIndex<>(build(new ArrayList<>(intervals)), intervals.size());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Values of every interval containing the point
+     */
+    public List<T> stab(long point) {
+        List<T> result = new ArrayList<>();
+        Node<T> node = root;
+        while (node != null) {
+            if (point < node.center) {
+                // Every interval here ends at or after center > point: only the start matters
+                for (Interval<T> interval : node.byStart) {
+                    if (interval.start > point) {
+                        break;
+                    }
+                    result.add(interval.value);
+                }
+                node = node.left;
+            } else if (point > node.center) {
+                // Every interval here starts at or before center < point: only the end matters
+                for (Interval<T> interval : node.byEndDescending) {
+                    if (interval.end < point) {
+                        break;
+                    }
+                    result.add(interval.value);
+                }
+                node = node.right;
+            } else {
+                for (Interval<T> interval : node.byStart) {
+                    result.add(interval.value);
+                }
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static <T> Node<T> build(List<Interval<T>> intervals) {
+        if (intervals.isEmpty()) {
+            return null;
+        }
+        long center = medianEndpoint(intervals);
+
+        List<Interval<T>> left = new ArrayList<>();
+        List<Interval<T>> right = new ArrayList<>();
+        List<Interval<T>> overlapping = new ArrayList<>();
+        for (Interval<T> interval : intervals) {
+            if (interval.end < center) {
+                left.add(interval);
+            } else if (interval.start > center) {
+                right.add(interval);
+            } else {
+                overlapping.add(interval);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Interval<T>[] byStart = overlapping.toArray(new Interval[0]);
+        Interval<T>[] byEnd = byStart.clone();
+        Arrays.sort(byStart, Comparator.comparingLong(i -> i.start));
+        Arrays.sort(byEnd, Comparator.comparingLong((Interval<T> i) -> i.end).reversed());
+        return new Node<>(center, byStart, byEnd, build(left), build(right));
+    }
+
+    /**
+     * Median of all endpoints; always lies inside at least one interval, so every level shrinks
+     */
+    private static <T> long medianEndpoint(List<Interval<T>> intervals) {
+        long[] endpoints = new long[intervals.size() * 2];
+        int i = 0;
+        for (Interval<T> interval : intervals) {
+            endpoints[i++] = interval.start;
+            endpoints[i++] = interval.end;
+        }
+        Arrays.sort(endpoints);
+        return endpoints[intervals.size()];
+    }
+
+    private static final class Node<T> {
+        private final long center;
+        private final Interval<T>[] byStart;
+        private final Interval<T>[] byEndDescending;
+        private final Node<T> left;
+        private final Node<T> right;
+
+        private Node(long center, Interval<T>[] byStart, Interval<T>[] byEndDescending, Node<T> left, Node<T> right) {
+            this.center = center;
+            this.byStart = byStart;
+            this.byEndDescending = byEndDescending;
+            this.left = left;
+            this.right = right;
+        }
+    }
+}
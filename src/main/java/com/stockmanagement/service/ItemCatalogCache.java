@@ -0,0 +1,437 @@
+package com.stockmanagement.service;
+
+import com.stockmanagement.entity.Discount;
+import com.stockmanagement.entity.Item;
+import com.stockmanagement.observer.StockChange;
+import com.stockmanagement.repository.ItemRepository;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory copy of the whole item catalog (items plus their discounts).
+ * Readers work on an immutable, versioned snapshot without locking. Committing transactions
+ * only mark the items they changed as dirty; a single background refresher re-reads dirty
+ * items in passes (one query and one snapshot copy per pass, however many commits it covers)
+ * and publishes the next snapshot in one volatile write. Until then, getItem reads a dirty
+ * item from the database, so a change is visible there as soon as it commits. A snapshot
+ * older than item.catalog.refresh-ms (default 5 minutes) is still served while the refresher
+ * reloads it, which picks up rows changed outside the application.
+ * Request threads never open a second transaction of their own from inside a caller's
+ * transaction: a read the snapshot cannot answer joins the caller's transaction instead.
+ * Callers receive copies, so changing a returned Item never affects the cache; each copy
+ * carries today's discounted price from the EffectivePriceIndex.
+ */
+@Component
+public class ItemCatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemCatalogCache.class);
+
+    private static final Comparator<Item> BY_ID = Comparator.comparing(Item::getId);
+
+    private final ItemRepository itemRepository;
+    private final EffectivePriceIndex priceIndex;
+    // Used only when no transaction is active, so it never needs a second connection
+    private final TransactionTemplate readTransaction;
+    private final long refreshNanos;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Item ids changed by committed transactions, waiting for the next reload pass
+    private final Set<Long> pendingReloads = ConcurrentHashMap.newKeySet();
+    // Item ids taken by the pass that is running; still dirty until it publishes
+    private final Set<Long> reloading = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fullReloadRequested = new AtomicBoolean();
+    private final AtomicBoolean passQueued = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "item-catalog-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // null until first use and after invalidateAll()
+    private volatile Snapshot snapshot;
+    private long nextVersion = 1;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder reloadPasses = new LongAdder();
+    private final LongAdder reloadedItems = new LongAdder();
+
+    public ItemCatalogCache(ItemRepository itemRepository, EffectivePriceIndex priceIndex,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${item.catalog.refresh-ms:300000}") long refreshMs) {
+        this.itemRepository = itemRepository;
+        this.priceIndex = priceIndex;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * All items ordered by id
+     */
+    public List<Item> getAllItems() {
+        Snapshot current = current();
+        List<Item> result;
+        if (current != null) {
+            hits.increment();
+            result = new ArrayList<>(current.items.size());
+            for (Item item : current.items) {
+                result.add(priced(copyOf(item)));
+            }
+        } else {
+            // Cold cache inside a caller's transaction: answered there, loaded in the background
+            misses.increment();
+            List<Item> items = read(itemRepository::findAllWithDiscounts);
+            result = new ArrayList<>(items.size());
+            for (Item item : items) {
+                result.add(priced(copyOf(item)));
+            }
+        }
+        return result;
+    }
+
+    public Optional<Item> getItem(long id) {
+        Snapshot current = current();
+        if (current != null && !isDirty(id)) {
+            Item cached = current.byId.get(id);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(priced(copyOf(cached)));
+            }
+        }
+        // Dirty, not loaded, or maybe inserted outside the application since the last load:
+        // read it now and let the refresher bring the snapshot up to date
+        misses.increment();
+        Optional<Item> loaded = read(() -> itemRepository.findByIdWithDiscounts(id));
+        if (current != null && !isDirty(id) && loaded.isPresent()) {
+            markDirty(List.of(id));
+        }
+        return loaded.map(item -> priced(copyOf(item)));
+    }
+
+    /**
+     * Re-read one item (for example after its discounts changed), once the surrounding
+     * transaction commits
+     */
+    public void refresh(long id) {
+        afterCommit(() -> markDirty(List.of(id)));
+    }
+
+    /**
+     * Mark the items of committed stock changes dirty. The changes themselves are not applied:
+     * they can arrive out of commit order, while the rows the refresher reads are always current.
+     */
+    public void applyStockChanges(List<StockChange> changes) {
+        List<Long> ids = new ArrayList<>(changes.size());
+        for (StockChange change : changes) {
+            if (change.getItemId() != null) {
+                ids.add(change.getItemId());
+            }
+        }
+        markDirty(ids);
+    }
+
+    /**
+     * Drop the snapshot; the next read reloads it
+     */
+    public void invalidateAll() {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current != null) {
+                evictions.add(current.items.size());
+                snapshot = null;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Cache statistics for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Snapshot current = snapshot;
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("loaded", current != null);
+        metrics.put("version", current != null ? current.version : 0);
+        metrics.put("size", current != null ? current.items.size() : 0);
+        metrics.put("hits", hitCount);
+        metrics.put("misses", missCount);
+        metrics.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        metrics.put("evictions", evictions.sum());
+        metrics.put("loads", loads.sum());
+        metrics.put("reloadPasses", reloadPasses.sum());
+        metrics.put("reloadedItems", reloadedItems.sum());
+        return metrics;
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && System.nanoTime() - current.loadedAtNanos < refreshNanos;
+    }
+
+    private boolean isDirty(long id) {
+        return pendingReloads.contains(id) || reloading.contains(id);
+    }
+
+    /**
+     * The snapshot to read from, or null if there is none and it cannot be loaded on this thread.
+     * A stale snapshot is returned as it is and reloaded in the background. A missing one is
+     * loaded here only outside a transaction, where loading cannot hold two connections at once.
+     */
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        if (current != null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            requestFullReload();
+            return current;
+        }
+        writeLock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = load();
+            }
+            return snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Run a read in the caller's transaction if there is one, otherwise in a read-only one
+     */
+    private <T> T read(Supplier<T> query) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return query.get();
+        }
+        return readTransaction.execute(status -> query.get());
+    }
+
+    private void markDirty(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        pendingReloads.addAll(ids);
+        queuePass();
+    }
+
+    private void requestFullReload() {
+        if (fullReloadRequested.compareAndSet(false, true)) {
+            queuePass();
+        }
+    }
+
+    /**
+     * Queue one refresher pass unless one is already queued; a queued pass takes every id
+     * marked dirty before it starts
+     */
+    private void queuePass() {
+        if (passQueued.compareAndSet(false, true)) {
+            refresher.execute(this::runPass);
+        }
+    }
+
+    private Snapshot load() {
+        List<Item> items = readTransaction.execute(status -> itemRepository.findAllWithDiscounts());
+        MutableState state = new MutableState(new LongKeyedMap<>(items.size()), new ArrayList<>(items.size()));
+        for (Item item : items) {
+            state.put(item);
+        }
+        loads.increment();
+        return new Snapshot(nextVersion++, state.byId, state.items, System.nanoTime());
+    }
+
+    /**
+     * Build the next snapshot from a private copy of the current one.
+     * Does nothing while no snapshot is loaded: the next read loads fresh data anyway.
+     */
+    private void mutate(Consumer<MutableState> change) {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            MutableState state = new MutableState(current.byId.copy(), new ArrayList<>(current.items));
+            change.accept(state);
+            snapshot = new Snapshot(nextVersion++, state.byId, state.items, current.loadedAtNanos);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * One refresher pass: a full reload if one was requested, otherwise a re-read of the dirty
+     * items. Runs only on the refresher thread, so rows are read in pass order and a later
+     * snapshot never holds an older row than an earlier one.
+     */
+    private void runPass() {
+        passQueued.set(false);
+        List<Long> batch = new ArrayList<>(pendingReloads);
+        reloading.addAll(batch);
+        pendingReloads.removeAll(batch);
+        try {
+            if (fullReloadRequested.getAndSet(false) || snapshot == null) {
+                writeLock.lock();
+                try {
+                    Snapshot current = snapshot;
+                    if (current != null) {
+                        evictions.add(current.items.size());
+                    }
+                    snapshot = load();
+                } finally {
+                    writeLock.unlock();
+                }
+            } else if (!batch.isEmpty()) {
+                List<Item> rows = readTransaction.execute(status -> itemRepository.findAllByIdWithDiscounts(batch));
+                Map<Long, Item> loaded = new HashMap<>(rows.size() * 2);
+                for (Item item : rows) {
+                    loaded.put(item.getId(), item);
+                }
+                mutate(state -> {
+                    for (Long id : batch) {
+                        Item item = loaded.get(id);
+                        if (item != null) {
+                            state.put(item);
+                        } else {
+                            state.remove(id);
+                        }
+                    }
+                });
+                reloadPasses.increment();
+                reloadedItems.add(batch.size());
+            }
+        } catch (RuntimeException e) {
+            // Retried by the next pass; until then reads of these items go to the database
+            pendingReloads.addAll(batch);
+            logger.warn("Item catalog refresh failed, will retry on the next change or read", e);
+        } finally {
+            reloading.removeAll(batch);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Resolve today's price on a copy being handed out; the index changes daily, the snapshot does not
+     */
+    private Item priced(Item copy) {
+        copy.setCurrentPrice(priceIndex.priceFor(copy.getId(), copy.getPrice()));
+        return copy;
+    }
+
+    /**
+     * Detached copy of an item, carrying its discounts but not its promotions
+     */
+    private static Item copyOf(Item source) {
+        Item copy = new Item(source.getId(), source.getName(), source.getQuantity(), source.getPrice(), source.getCategory());
+        copy.setSku(source.getSku());
+        copy.setDescription(source.getDescription());
+        copy.setCreatedDate(source.getCreatedDate());
+        copy.setUpdatedDate(source.getUpdatedDate());
+        copy.setPromotions(new HashSet<>());
+        List<Discount> discounts = source.getDiscounts();
+        copy.setDiscounts(discounts != null && Hibernate.isInitialized(discounts)
+                ? new ArrayList<>(discounts) : new ArrayList<>());
+        return copy;
+    }
+
+    /**
+     * Immutable view of the catalog at one version
+     */
+    private static final class Snapshot {
+        private final long version;
+        private final LongKeyedMap<Item> byId;
+        private final List<Item> items;
+        private final long loadedAtNanos;
+
+        private Snapshot(long version, LongKeyedMap<Item> byId, List<Item> items, long loadedAtNanos) {
+            this.version = version;
+            this.byId = byId;
+            this.items = Collections.unmodifiableList(items);
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+
+    /**
+     * Private working copy used while building the next snapshot; items stay sorted by id
+     */
+    private final class MutableState {
+        private final LongKeyedMap<Item> byId;
+        private final List<Item> items;
+
+        private MutableState(LongKeyedMap<Item> byId, List<Item> items) {
+            this.byId = byId;
+            this.items = items;
+        }
+
+        private void put(Item item) {
+            Item copy = copyOf(item);
+            byId.put(copy.getId(), copy);
+            int index = Collections.binarySearch(items, copy, BY_ID);
+            if (index >= 0) {
+                items.set(index, copy);
+            } else {
+                items.add(-index - 1, copy);
+            }
+        }
+
+        private void remove(long id) {
+            Item removed = byId.remove(id);
+            if (removed != null) {
+                items.remove(Collections.binarySearch(items, removed, BY_ID));
+                evictions.increment();
+            }
+        }
+    }
+}
@@ -1,19 +1,29 @@
 package com.stockmanagement.service;
 
 import com.stockmanagement.entity.Item;
+import com.stockmanagement.observer.StockChange;
+import com.stockmanagement.observer.StockChangeBatch;
+import com.stockmanagement.observer.StockChangeCollector;
 import com.stockmanagement.observer.StockObserver;
+import com.stockmanagement.observer.StockObserverRegistry;
 import com.stockmanagement.observer.StockSubject;
+import com.stockmanagement.observer.dispatch.StockEventDispatcher;
 import com.stockmanagement.repository.ItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class ItemService implements StockSubject {
 
+    private static final Logger logger = LoggerFactory.getLogger(ItemService.class);
+
     @Autowired
     private ItemRepository itemRepository;
     
@@ -29,40 +39,72 @@ public class ItemService implements StockSubject {
     @Autowired
     private DeleteItemService deleteItemService;
     
-    // Observer Pattern: List of observers
-    private final List<StockObserver> observers = new ArrayList<>();
+    @Autowired
+    private StockEventDispatcher stockEventDispatcher;
+    
+    @Autowired
+    private ItemCatalogCache catalog;
+    
+    // Observer Pattern: copy-on-write registry, safe to iterate while observers are added or removed
+    private final StockObserverRegistry observers = new StockObserverRegistry();
+
+    // Stock changes are published per transaction, after commit
+    private final StockChangeCollector stockChanges = new StockChangeCollector(this::publishBatch);
 
     // ===== OBSERVER PATTERN METHODS =====
     
     @Override
     public void registerObserver(StockObserver observer) {
-        if (!observers.contains(observer)) {
-            observers.add(observer);
-            System.out.println("✅ Registered observer: " + observer.getObserverName());
+        // Delivery is set up first, so the observer never appears in a snapshot without a channel
+        stockEventDispatcher.register(observer);
+        if (observers.register(observer)) {
+            logger.info("Registered observer: {}", observer.getObserverName());
         }
     }
     
     @Override
     public void removeObserver(StockObserver observer) {
-        observers.remove(observer);
-        System.out.println("❌ Removed observer: " + observer.getObserverName());
+        if (observers.remove(observer)) {
+            stockEventDispatcher.unregister(observer);
+            logger.info("Removed observer: {}", observer.getObserverName());
+        }
     }
     
     @Override
     public void notifyObservers(Item item, int oldQuantity, int newQuantity) {
-        System.out.println("\n🔔 Notifying " + observers.size() + " observers about stock change");
-        System.out.println("   Item: " + item.getName() + " | Old: " + oldQuantity + " → New: " + newQuantity);
-        System.out.println("───────────────────────────────────────────────────────────");
-        
-        for (StockObserver observer : observers) {
-            try {
-                observer.onStockChange(item, oldQuantity, newQuantity);
-            } catch (Exception e) {
-                System.err.println("❌ Error in observer " + observer.getObserverName() + ": " + e.getMessage());
-                e.printStackTrace();
-            }
-        }
-        System.out.println("───────────────────────────────────────────────────────────\n");
+        publishStockChange(StockChange.of(item, oldQuantity, newQuantity));
+    }
+
+    /**
+     * Queue a stock change for the observers. Inside a transaction it is delivered with the
+     * other changes of that transaction once it commits; otherwise it is delivered right away.
+     */
+    public void publishStockChange(StockChange change) {
+        stockChanges.add(change);
+    }
+
+    private void publishBatch(StockChangeBatch batch) {
+        // Items of committed stock changes (including checkouts) are marked dirty in the catalog cache
+        catalog.applyStockChanges(batch.getChanges());
+
+        logger.debug("Notifying {} observers about {} stock change(s)", observers.size(), batch.size());
+
+        // Delivery (sync or queued) is up to the dispatcher
+        stockEventDispatcher.dispatch(observers.snapshot(), batch);
+    }
+    
+    /**
+     * Hit, miss and eviction counters of the item catalog cache
+     */
+    public Map<String, Object> getCatalogMetrics() {
+        return catalog.getMetrics();
+    }
+    
+    /**
+     * Delivery statistics for each registered observer
+     */
+    public Map<String, Map<String, Object>> getObserverMetrics() {
+        return stockEventDispatcher.getMetrics();
     }
 
     // ===== EXISTING METHODS =====
@@ -78,7 +120,7 @@ public class ItemService implements StockSubject {
      * Get item by ID
      */
     public Optional<Item> getItemById(Long id) {
-        return itemRepository.findById(id);
+        return catalog.getItem(id);
     }
     
     /**
@@ -115,8 +157,10 @@ public class ItemService implements StockSubject {
      * Update stock quantity
      * REFACTORED: Now using Observer Pattern to notify all observers
      */
+    @Transactional
     public void updateStock(int itemId, int quantityChange) {
-        Optional<Item> itemOpt = getItemById(itemId);
+        // Lock the row itself, not the cached copy: this is a read-modify-write
+        Optional<Item> itemOpt = itemRepository.findByIdForUpdate((long) itemId);
         if (itemOpt.isPresent()) {
             Item item = itemOpt.get();
             
@@ -129,9 +173,9 @@ public class ItemService implements StockSubject {
                 throw new IllegalArgumentException("Insufficient stock for item: " + item.getName());
             }
             
-            // Update the quantity
+            // Update the quantity; the catalog picks it up from the published change
             item.setQuantity(newQuantity);
-            updateItem(item);
+            itemRepository.save(item);
             
             // 🔔 NOTIFY ALL OBSERVERS ABOUT THE CHANGE (Observer Pattern)
             notifyObservers(item, oldQuantity, newQuantity);
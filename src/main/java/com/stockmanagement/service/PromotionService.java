@@ -1,5 +1,6 @@
 package com.stockmanagement.service;
 
+import com.stockmanagement.config.ReferenceCacheConfig;
 import com.stockmanagement.dto.PromotionDTO;
 import com.stockmanagement.dto.PromotionWithItemsDTO;
 import com.stockmanagement.entity.Item;
@@ -7,110 +8,223 @@ import com.stockmanagement.entity.Promotion;
 import com.stockmanagement.repository.ItemRepository;
 import com.stockmanagement.repository.PromotionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class PromotionService {
 
+    // Promotion ids per IN list when loading item ids
+    private static final int ITEM_ID_BATCH = 1000;
+
     private final PromotionRepository promotionRepository;
     private final ItemRepository itemRepository;
+    private final ActivationIndex activationIndex;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_ITEM_SQL = "INSERT INTO promotion_items (promotion_id, item_id) VALUES (?, ?)";
+    private static final String DELETE_ITEM_SQL = "DELETE FROM promotion_items WHERE promotion_id = ? AND item_id = ?";
 
     @Autowired
-    public PromotionService(PromotionRepository promotionRepository, ItemRepository itemRepository) {
+    public PromotionService(PromotionRepository promotionRepository, ItemRepository itemRepository,
+                            ActivationIndex activationIndex, JdbcTemplate jdbcTemplate) {
         this.promotionRepository = promotionRepository;
         this.itemRepository = itemRepository;
+        this.activationIndex = activationIndex;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
+    @Cacheable(cacheNames = ReferenceCacheConfig.PROMOTION_QUERIES, key = "'all'")
     public List<PromotionDTO> getAllPromotions() {
-        return promotionRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return toDTOs(promotionRepository.findAll());
     }
 
+    @Cacheable(cacheNames = ReferenceCacheConfig.PROMOTION_QUERIES, key = "'active'")
     public List<PromotionDTO> getActivePromotions() {
-        return promotionRepository.findByActiveTrue().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return toDTOs(promotionRepository.findByActiveTrue());
     }
 
+    // Keyed by date, so the cached answer never outlives the day it was computed for
+    @Cacheable(cacheNames = ReferenceCacheConfig.PROMOTION_QUERIES, key = "'current:' + T(java.time.LocalDate).now()")
     public List<PromotionDTO> getCurrentlyActivePromotions() {
-        LocalDate today = LocalDate.now();
-        return promotionRepository.findCurrentlyActivePromotions(today).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<Long> ids = activationIndex.activePromotionIds(LocalDate.now());
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Promotion> promotions = promotionRepository.findAllById(ids);
+        promotions.sort(Comparator.comparing(Promotion::getId));
+        return toDTOs(promotions);
     }
 
+    /**
+     * Whether the promotion is running today, as of the last committed change to it
+     */
+    public boolean isCurrentlyActive(Long promotionId) {
+        return promotionId != null && activationIndex.isPromotionActiveToday(promotionId);
+    }
+
+    @Cacheable(cacheNames = ReferenceCacheConfig.PROMOTIONS, key = "#id")
     public Optional<PromotionDTO> getPromotionById(Long id) {
         return promotionRepository.findById(id)
-                .map(this::convertToDTO);
+                .map(promotion -> toDTOs(List.of(promotion)).get(0));
     }
     
     @Transactional(readOnly = true)
     public Optional<PromotionWithItemsDTO> getPromotionByIdWithItems(Long id) {
-        return promotionRepository.findById(id)
+        return promotionRepository.findByIdWithItems(id)
                 .map(this::convertToDTOWithItems);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ReferenceCacheConfig.PROMOTION_QUERIES, allEntries = true)
     public PromotionDTO createPromotion(PromotionDTO promotionDTO) {
         Promotion promotion = new Promotion();
         updatePromotionFromDTO(promotion, promotionDTO);
         Promotion savedPromotion = promotionRepository.save(promotion);
-        return convertToDTO(savedPromotion);
+        Set<Long> itemIds = assignItems(savedPromotion.getId(), promotionDTO.getItemIds());
+        activationIndex.promotionChanged(savedPromotion.getId());
+        return convertToDTO(savedPromotion, itemIds);
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ReferenceCacheConfig.PROMOTIONS, key = "#id"),
+            @CacheEvict(cacheNames = ReferenceCacheConfig.PROMOTION_QUERIES, allEntries = true)
+    })
     public Optional<PromotionDTO> updatePromotion(Long id, PromotionDTO promotionDTO) {
         return promotionRepository.findById(id)
                 .map(existingPromotion -> {
                     updatePromotionFromDTO(existingPromotion, promotionDTO);
-                    return convertToDTO(promotionRepository.save(existingPromotion));
+                    Promotion savedPromotion = promotionRepository.save(existingPromotion);
+                    Set<Long> itemIds = assignItems(id, promotionDTO.getItemIds());
+                    activationIndex.promotionChanged(id);
+                    return convertToDTO(savedPromotion, itemIds);
                 });
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ReferenceCacheConfig.PROMOTIONS, key = "#id"),
+            @CacheEvict(cacheNames = ReferenceCacheConfig.PROMOTION_QUERIES, allEntries = true)
+    })
     public boolean deletePromotion(Long id) {
         if (promotionRepository.existsById(id)) {
             promotionRepository.deleteById(id);
+            activationIndex.promotionChanged(id);
             return true;
         }
         return false;
     }
 
     public List<PromotionDTO> searchPromotions(String keyword) {
-        return promotionRepository.findByNameContainingIgnoreCase(keyword).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return toDTOs(promotionRepository.findByNameContainingIgnoreCase(keyword));
     }
 
+    @Cacheable(cacheNames = ReferenceCacheConfig.PROMOTION_QUERIES, key = "'item:' + #itemId")
     public List<PromotionDTO> getPromotionsForItem(Long itemId) {
-        return promotionRepository.findByItemId(itemId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return toDTOs(promotionRepository.findByItemId(itemId));
+    }
+
+    /**
+     * Convert loaded promotions without touching their lazy item sets: the item ids of all of
+     * them come from one projection query (per ITEM_ID_BATCH promotions), so a listing costs two
+     * queries however many promotions it has.
+     */
+    private List<PromotionDTO> toDTOs(List<Promotion> promotions) {
+        Map<Long, PromotionDTO> byId = new LinkedHashMap<>();
+        for (Promotion promotion : promotions) {
+            PromotionDTO dto = new PromotionDTO(
+                    promotion.getId(),
+                    promotion.getName(),
+                    promotion.getDescription(),
+                    promotion.getStartDate(),
+                    promotion.getEndDate(),
+                    promotion.getActive(),
+                    null
+            );
+            byId.put(promotion.getId(), dto);
+        }
+        List<Long> ids = new ArrayList<>(byId.keySet());
+        for (int from = 0; from < ids.size(); from += ITEM_ID_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + ITEM_ID_BATCH, ids.size()));
+            for (Object[] row : promotionRepository.findItemIdsByPromotionIds(batch)) {
+                byId.get((Long) row[0]).getItemIds().add((Long) row[1]);
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Make the promotion's items exactly the requested ones that exist. The requested ids are
+     * checked with one findAllById and compared with the current junction rows; only the
+     * difference is written, as batched inserts and deletes on promotion_items.
+     * The promotion's own item collection is left untouched, so Hibernate never rewrites it.
+     * @return The item ids the promotion now has
+     */
+    private Set<Long> assignItems(Long promotionId, Set<Long> requestedIds) {
+        Set<Long> target = new HashSet<>();
+        if (requestedIds != null && !requestedIds.isEmpty()) {
+            for (Item item : itemRepository.findAllById(requestedIds)) {
+                target.add(item.getId());
+            }
+        }
+
+        Set<Long> current = new HashSet<>();
+        for (Object[] row : promotionRepository.findItemIdsByPromotionIds(List.of(promotionId))) {
+            current.add((Long) row[1]);
+        }
+
+        List<Object[]> removed = new ArrayList<>();
+        for (Long itemId : current) {
+            if (!target.contains(itemId)) {
+                removed.add(new Object[]{promotionId, itemId});
+            }
+        }
+        List<Object[]> added = new ArrayList<>();
+        for (Long itemId : target) {
+            if (!current.contains(itemId)) {
+                added.add(new Object[]{promotionId, itemId});
+            }
+        }
+        if (!removed.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ITEM_SQL, removed);
+        }
+        if (!added.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, added);
+        }
+        return target;
     }
 
-    private PromotionDTO convertToDTO(Promotion promotion) {
-        return new PromotionDTO(
+    private PromotionDTO convertToDTO(Promotion promotion, Set<Long> itemIds) {
+        PromotionDTO dto = new PromotionDTO(
                 promotion.getId(),
                 promotion.getName(),
                 promotion.getDescription(),
                 promotion.getStartDate(),
                 promotion.getEndDate(),
                 promotion.getActive(),
-                promotion.getItems()
+                null
         );
+        dto.setItemIds(itemIds);
+        return dto;
     }
     
     private PromotionWithItemsDTO convertToDTOWithItems(Promotion promotion) {
-        return new PromotionWithItemsDTO(
+        PromotionWithItemsDTO dto = new PromotionWithItemsDTO(
                 promotion.getId(),
                 promotion.getName(),
                 promotion.getDescription(),
@@ -119,6 +233,8 @@ public class PromotionService {
                 promotion.getActive(),
                 promotion.getItems()
         );
+        dto.setCurrentlyActive(isCurrentlyActive(promotion.getId()));
+        return dto;
     }
 
     private void updatePromotionFromDTO(Promotion promotion, PromotionDTO dto) {
@@ -135,14 +251,6 @@ public class PromotionService {
         promotion.setStartDate(dto.getStartDate());
         promotion.setEndDate(dto.getEndDate());
         promotion.setActive(dto.getActive());
-
-        // Handle item associations
-        Set<Item> items = new HashSet<>();
-        if (dto.getItemIds() != null && !dto.getItemIds().isEmpty()) {
-            for (Long itemId : dto.getItemIds()) {
-                itemRepository.findById(itemId).ifPresent(items::add);
-            }
-        }
-        promotion.setItems(items);
+        // Item associations are written by assignItems once the promotion has an id
     }
 }
\ No newline at end of file
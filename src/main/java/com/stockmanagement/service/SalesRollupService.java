@@ -0,0 +1,239 @@
+package com.stockmanagement.service;
+
+import com.stockmanagement.entity.Bill;
+import com.stockmanagement.entity.BillStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * sales_daily_rollup: bill count, revenue and tax per day and bill status, maintained by
+ * BillService on every create, edit, status change and delete. A report over a year reads
+ * at most 365 rows per status instead of every bill. Any date range can be rebuilt, and a
+ * nightly job rebuilds the recent days that no longer match bills.
+ */
+@Service
+public class SalesRollupService extends IncrementalAggregate<SalesRollupService.Contribution> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO sales_daily_rollup (sale_date, status, bill_count, revenue, tax) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE bill_count = bill_count + VALUES(bill_count), " +
+            "revenue = revenue + VALUES(revenue), tax = tax + VALUES(tax)";
+
+    // Same shape for both sources: [date, status, bill count, revenue, tax]
+    private static final String ROLLUP_RANGE_SQL =
+            "SELECT sale_date, status, bill_count, revenue, tax FROM sales_daily_rollup " +
+            "WHERE sale_date BETWEEN ? AND ? ORDER BY sale_date, status";
+
+    private static final String BILLS_RANGE_SQL =
+            "SELECT DATE(bill_date), status, COUNT(*), COALESCE(SUM(total_amount), 0), COALESCE(SUM(tax_amount), 0) " +
+            "FROM bills WHERE bill_date >= ? AND bill_date < ? GROUP BY DATE(bill_date), status";
+
+    @Value("${sales.rollup.reconcile-days:30}")
+    private int reconcileDays;
+
+    @Override
+    protected String tableName() {
+        return "sales_daily_rollup";
+    }
+
+    @Override
+    protected String sourceTableName() {
+        return "bills";
+    }
+
+    @Override
+    protected String createTableSql() {
+        return "CREATE TABLE IF NOT EXISTS sales_daily_rollup (" +
+                "sale_date DATE NOT NULL, status VARCHAR(20) NOT NULL, " +
+                "bill_count BIGINT NOT NULL DEFAULT 0, revenue DECIMAL(15,2) NOT NULL DEFAULT 0.00, " +
+                "tax DECIMAL(15,2) NOT NULL DEFAULT 0.00, PRIMARY KEY (sale_date, status))";
+    }
+
+    // ===== INCREMENTAL MAINTENANCE =====
+
+    @Override
+    protected String contributionSql() {
+        return "SELECT bill_date, status, total_amount, tax_amount FROM bills WHERE id = ?";
+    }
+
+    @Override
+    protected RowMapper<Contribution> contributionMapper() {
+        return (rs, rowNum) -> new Contribution(
+                rs.getTimestamp(1) != null ? rs.getTimestamp(1).toLocalDateTime().toLocalDate() : null,
+                rs.getString(2) != null ? BillStatus.valueOf(rs.getString(2)) : null,
+                rs.getBigDecimal(3),
+                rs.getBigDecimal(4));
+    }
+
+    @Override
+    protected void add(Contribution contribution, int sign) {
+        // Bills without a date or status are not in any report
+        if (!contribution.isCounted()) {
+            return;
+        }
+        BigDecimal factor = BigDecimal.valueOf(sign);
+        jdbcTemplate.update(UPSERT_SQL, Date.valueOf(contribution.day), contribution.status.name(), sign,
+                contribution.total.multiply(factor), contribution.tax.multiply(factor));
+    }
+
+    // ===== READS =====
+
+    /**
+     * Rollup rows in the range: [LocalDate, BillStatus, Long billCount, BigDecimal revenue, BigDecimal tax]
+     */
+    public List<Object[]> readDaily(LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.query(ROLLUP_RANGE_SQL, (rs, rowNum) -> new Object[]{
+                rs.getDate(1).toLocalDate(),
+                BillStatus.valueOf(rs.getString(2)),
+                rs.getLong(3),
+                rs.getBigDecimal(4),
+                rs.getBigDecimal(5)
+        }, Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    // ===== REBUILD, RECONCILIATION =====
+
+    @Override
+    public int rebuildAll() {
+        Integer rows = rebuildTransaction().execute(status -> {
+            jdbcTemplate.update("DELETE FROM sales_daily_rollup");
+            return jdbcTemplate.update(
+                    "INSERT INTO sales_daily_rollup (sale_date, status, bill_count, revenue, tax) " +
+                    "SELECT DATE(bill_date), status, COUNT(*), COALESCE(SUM(total_amount), 0), COALESCE(SUM(tax_amount), 0) " +
+                    "FROM bills WHERE bill_date IS NOT NULL AND status IS NOT NULL GROUP BY DATE(bill_date), status");
+        });
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Recompute the rollup for the days in [startDate, endDate]
+     * @return Number of rollup rows written
+     */
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        Integer rows = rebuildTransaction().execute(status -> {
+            jdbcTemplate.update("DELETE FROM sales_daily_rollup WHERE sale_date BETWEEN ? AND ?",
+                    Date.valueOf(startDate), Date.valueOf(endDate));
+            return jdbcTemplate.update(
+                    "INSERT INTO sales_daily_rollup (sale_date, status, bill_count, revenue, tax) " +
+                    "SELECT DATE(bill_date), status, COUNT(*), COALESCE(SUM(total_amount), 0), COALESCE(SUM(tax_amount), 0) " +
+                    "FROM bills WHERE bill_date >= ? AND bill_date < ? AND status IS NOT NULL GROUP BY DATE(bill_date), status",
+                    startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+        });
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Days in the range whose rollup rows differ from an aggregate over bills
+     */
+    public List<LocalDate> findMismatchedDays(LocalDate startDate, LocalDate endDate) {
+        Map<String, Object[]> expected = new HashMap<>();
+        jdbcTemplate.query(BILLS_RANGE_SQL, rs -> {
+            if (rs.getString(2) != null) {
+                expected.put(rs.getDate(1).toLocalDate() + "|" + rs.getString(2),
+                        new Object[]{rs.getDate(1).toLocalDate(), rs.getLong(3), rs.getBigDecimal(4), rs.getBigDecimal(5)});
+            }
+        }, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+
+        TreeSet<LocalDate> mismatched = new TreeSet<>();
+        for (Object[] row : readDaily(startDate, endDate)) {
+            LocalDate day = (LocalDate) row[0];
+            Object[] bills = expected.remove(day + "|" + ((BillStatus) row[1]).name());
+            long count = (Long) row[2];
+            if (bills == null) {
+                // Rows emptied by deletes legitimately stay behind with zero totals
+                if (count != 0 || ((BigDecimal) row[3]).signum() != 0 || ((BigDecimal) row[4]).signum() != 0) {
+                    mismatched.add(day);
+                }
+            } else if (count != (Long) bills[1]
+                    || ((BigDecimal) row[3]).compareTo((BigDecimal) bills[2]) != 0
+                    || ((BigDecimal) row[4]).compareTo((BigDecimal) bills[3]) != 0) {
+                mismatched.add(day);
+            }
+        }
+        // Aggregates with no rollup row at all
+        for (Object[] bills : expected.values()) {
+            mismatched.add((LocalDate) bills[0]);
+        }
+        return new ArrayList<>(mismatched);
+    }
+
+    /**
+     * Compare the rollup of the last sales.rollup.reconcile-days days with bills and
+     * rebuild each day that drifted (for example after bills were changed outside the application)
+     * @return The days that were repaired
+     */
+    @Scheduled(cron = "${sales.rollup.reconcile-cron:0 30 2 * * *}")
+    public List<LocalDate> reconcileRecent() {
+        if (!isReady()) {
+            return new ArrayList<>();
+        }
+        LocalDate today = LocalDate.now();
+        List<LocalDate> mismatched = findMismatchedDays(today.minusDays(reconcileDays), today);
+        for (LocalDate day : mismatched) {
+            rebuild(day, day);
+        }
+        if (!mismatched.isEmpty()) {
+            logger.warn("Sales rollup drifted from bills on {} day(s), rebuilt: {}", mismatched.size(), mismatched);
+        }
+        return mismatched;
+    }
+
+    /**
+     * The part of one bill counted in the rollup: its day, status and amounts
+     */
+    public static final class Contribution {
+        private final LocalDate day;
+        private final BillStatus status;
+        private final BigDecimal total;
+        private final BigDecimal tax;
+
+        public Contribution(LocalDate day, BillStatus status, BigDecimal total, BigDecimal tax) {
+            this.day = day;
+            this.status = status;
+            this.total = total != null ? total : BigDecimal.ZERO;
+            this.tax = tax != null ? tax : BigDecimal.ZERO;
+        }
+
+        public static Contribution of(Bill bill) {
+            return new Contribution(bill.getBillDate() != null ? bill.getBillDate().toLocalDate() : null,
+                    bill.getStatus(), bill.getTotalAmount(), bill.getTaxAmount());
+        }
+
+        private boolean isCounted() {
+            return day != null && status != null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Contribution other)) {
+                return false;
+            }
+            return Objects.equals(day, other.day) && status == other.status
+                    && total.compareTo(other.total) == 0 && tax.compareTo(other.tax) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, status);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.stockmanagement.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out unique numbers from named sequences in the id_sequences table.
+ * Each instance leases a block of numbers with one atomic UPDATE and then serves
+ * them from memory, so only one call in blockSize touches the database and
+ * several application instances never hand out the same number.
+ *
+ * Leases run on a small connection pool of their own (sequence.lease.pool-size, default 2).
+ * Callers ask for numbers while holding a connection from the main pool; if leases drew
+ * from that pool too, a burst of callers could hold every connection while waiting for a
+ * lease that can no longer get one.
+ */
+@Service
+public class SequenceAllocator {
+
+    private final HikariDataSource leaseDataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate leaseTransaction;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SequenceAllocator(DataSourceProperties dataSourceProperties,
+                             @Value("${sequence.lease.pool-size:2}") int leasePoolSize) {
+        this.leaseDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        this.leaseDataSource.setPoolName("sequence-lease");
+        this.leaseDataSource.setMaximumPoolSize(leasePoolSize);
+        this.leaseDataSource.setMinimumIdle(0);
+        this.jdbcTemplate = new JdbcTemplate(leaseDataSource);
+        // Leases commit on their own connection: rolling one back with the caller's transaction
+        // would let another instance lease the same range again
+        this.leaseTransaction = new TransactionTemplate(new DataSourceTransactionManager(leaseDataSource));
+    }
+
+    @PreDestroy
+    public void close() {
+        leaseDataSource.close();
+    }
+
+    /**
+     * Get the next number from a sequence
+     * @param sequenceName Name of the sequence (row in id_sequences)
+     * @param blockSize Numbers to lease per database round-trip
+     * @param initialValue First value of the sequence if it does not exist yet
+     * @return Next unique value
+     */
+    public long next(String sequenceName, int blockSize, long initialValue) {
+        return next(sequenceName, blockSize, () -> initialValue);
+    }
+
+    /**
+     * Get the next number from a sequence whose first value is derived from existing data
+     * @param sequenceName Name of the sequence (row in id_sequences)
+     * @param blockSize Numbers to lease per database round-trip
+     * @param initialValue Computes the first value; only called while the sequence row does not exist yet
+     * @return Next unique value
+     */
+    public long next(String sequenceName, int blockSize, LongSupplier initialValue) {
+        Block block = blocks.computeIfAbsent(sequenceName, name -> new Block());
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                long start = lease(sequenceName, blockSize, initialValue);
+                block.next = start;
+                block.limit = start + blockSize;
+            }
+            return block.next++;
+        }
+    }
+
+    /**
+     * Drop any numbers held in memory for a sequence, so the next call leases a fresh block
+     */
+    public void discard(String sequenceName) {
+        blocks.remove(sequenceName);
+    }
+
+    /**
+     * Atomically advance the sequence by blockSize and return the first value of the leased range
+     */
+    private long lease(String sequenceName, int blockSize, LongSupplier initialValue) {
+        Long start = leaseTransaction.execute(status -> {
+            // LAST_INSERT_ID(expr) stores the new value for this connection, so the
+            // following SELECT reads our own increment without a second lock
+            String advance = "UPDATE id_sequences SET next_value = LAST_INSERT_ID(next_value + ?) WHERE sequence_name = ?";
+            if (jdbcTemplate.update(advance, blockSize, sequenceName) == 0) {
+                // First use: seed the row, then advance it. If another instance seeded it
+                // meanwhile, INSERT IGNORE keeps theirs and we advance from there.
+                jdbcTemplate.update(
+                        "INSERT IGNORE INTO id_sequences (sequence_name, next_value) VALUES (?, ?)",
+                        sequenceName, initialValue.getAsLong());
+                jdbcTemplate.update(advance, blockSize, sequenceName);
+            }
+            Long end = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+            return end - blockSize;
+        });
+        if (start == null) {
+            throw new IllegalStateException("Unable to lease numbers from sequence: " + sequenceName);
+        }
+        return start;
+    }
+
+    private static class Block {
+        private long next;
+        private long limit;
+    }
+}
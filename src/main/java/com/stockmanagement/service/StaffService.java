@@ -1,18 +1,28 @@
 package com.stockmanagement.service;
 
+import com.stockmanagement.config.RegionCache;
 import com.stockmanagement.entity.Staff;
 import com.stockmanagement.repository.StaffRepository;
+import com.stockmanagement.repository.StaffSpecifications;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Service
 public class StaffService {
@@ -20,6 +30,35 @@ public class StaffService {
     @Autowired
     private StaffRepository staffRepository;
 
+    @Autowired
+    private SequenceAllocator sequenceAllocator;
+
+    // Properties the advanced search may sort by
+    private static final Set<String> SEARCH_SORT_PROPERTIES = Set.of(
+            "id", "employeeId", "firstName", "lastName", "email", "department", "role",
+            "hireDate", "salary", "performanceRating");
+
+    // Page size of the advanced search when only a page number is given
+    private static final int SEARCH_PAGE_SIZE = 50;
+
+    private static final String EMPLOYEE_ID_SEQUENCE = "employee_id";
+
+    private static final int REPORT_CACHE_MAX_ENTRIES = 100;
+
+    @Value("${staff.id.block-size:10}")
+    private int employeeIdBlockSize;
+
+    @Value("${staff.report.cache-ttl-seconds:30}")
+    private long reportCacheTtlSeconds;
+
+    // Recent staff reports by (start, end, department); see generateStaffReport
+    private RegionCache reportCache;
+
+    @PostConstruct
+    public void initReportCache() {
+        reportCache = new RegionCache("staffReports", reportCacheTtlSeconds, REPORT_CACHE_MAX_ENTRIES);
+    }
+
     // Email validation pattern
     private static final Pattern EMAIL_PATTERN =
             Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
@@ -79,7 +118,9 @@ public class StaffService {
             staff.setIsActive(true);
         }
 
-        return staffRepository.save(staff);
+        Staff saved = staffRepository.save(staff);
+        reportCache.clear();
+        return saved;
     }
 
     public Staff updateStaff(Long id, Staff staffDetails) {
@@ -116,13 +157,19 @@ public class StaffService {
 
             // Update photo fields if provided
             if (staffDetails.getPhotoUrl() != null) {
+                if (!staffDetails.getPhotoUrl().equals(staff.getPhotoUrl())) {
+                    // The old thumbnail belongs to the old photo
+                    staff.setPhotoThumbnailUrl(null);
+                }
                 staff.setPhotoUrl(staffDetails.getPhotoUrl());
             }
             if (staffDetails.getPhotoThumbnailUrl() != null) {
                 staff.setPhotoThumbnailUrl(staffDetails.getPhotoThumbnailUrl());
             }
 
-            return staffRepository.save(staff);
+            Staff saved = staffRepository.save(staff);
+            reportCache.clear();
+            return saved;
         }
         throw new IllegalArgumentException("Staff not found with ID: " + id);
     }
@@ -267,6 +314,7 @@ public class StaffService {
         Optional<Staff> optionalStaff = staffRepository.findById(id);
         if (optionalStaff.isPresent()) {
             staffRepository.hardDeleteById(id);
+            reportCache.clear();
             return true;
         }
         return false;
@@ -289,118 +337,124 @@ public class StaffService {
 
             Staff staff = optionalStaff.get();
             staff.setPerformanceRating(rating);
-            return staffRepository.save(staff);
+            Staff saved = staffRepository.save(staff);
+            reportCache.clear();
+            return saved;
         }
         throw new IllegalArgumentException("Staff not found with ID: " + id);
     }
 
-    // Advanced search method
-    public List<Staff> advancedSearch(String name, String department, String role,
+    /**
+     * Advanced search. Only the given criteria become predicates, and filtering, sorting and
+     * paging all run in the database.
+     * @param page Zero-based page number; with size also null, every match is returned in one page
+     * @param size Page size (SEARCH_PAGE_SIZE when only page is given)
+     * @param sortBy Staff property to sort by (see SEARCH_SORT_PROPERTIES); defaults to id
+     * @param direction "asc" or "desc"
+     */
+    public Page<Staff> advancedSearch(String name, String department, String role,
                                       Double minSalary, Double maxSalary,
                                       Double minRating, Double maxRating,
                                       String hireDateFrom, String hireDateTo,
-                                      Boolean isActive) {
-
-        List<Staff> allStaff = staffRepository.findAll();
-
-        return allStaff.stream()
-                .filter(staff -> name == null || name.isEmpty() ||
-                        (staff.getFirstName() + " " + staff.getLastName()).toLowerCase().contains(name.toLowerCase()) ||
-                        staff.getEmail().toLowerCase().contains(name.toLowerCase()))
-                .filter(staff -> department == null || department.isEmpty() ||
-                        (staff.getDepartment() != null && staff.getDepartment().equalsIgnoreCase(department)))
-                .filter(staff -> role == null || role.isEmpty() ||
-                        staff.getRole().equalsIgnoreCase(role))
-                .filter(staff -> minSalary == null ||
-                        (staff.getSalary() != null && staff.getSalary() >= minSalary))
-                .filter(staff -> maxSalary == null ||
-                        (staff.getSalary() != null && staff.getSalary() <= maxSalary))
-                .filter(staff -> minRating == null ||
-                        (staff.getPerformanceRating() != null && staff.getPerformanceRating() >= minRating))
-                .filter(staff -> maxRating == null ||
-                        (staff.getPerformanceRating() != null && staff.getPerformanceRating() <= maxRating))
-                .filter(staff -> hireDateFrom == null || hireDateFrom.isEmpty() ||
-                        staff.getHireDate().isAfter(LocalDate.parse(hireDateFrom).minusDays(1)))
-                .filter(staff -> hireDateTo == null || hireDateTo.isEmpty() ||
-                        staff.getHireDate().isBefore(LocalDate.parse(hireDateTo).plusDays(1)))
-                .filter(staff -> isActive == null || staff.getIsActive().equals(isActive))
-                .collect(Collectors.toList());
+                                      Boolean isActive,
+                                      Integer page, Integer size, String sortBy, String direction) {
+        String property = sortBy != null && SEARCH_SORT_PROPERTIES.contains(sortBy) ? sortBy : "id";
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        // id as a tie-breaker keeps pages stable when the sort column has duplicates
+        Sort sort = Sort.by(sortDirection, property).and(Sort.by(sortDirection, "id"));
+        Pageable pageable = page == null && size == null
+                ? Pageable.unpaged(sort)
+                : PageRequest.of(page != null ? Math.max(page, 0) : 0,
+                        size != null ? Math.max(size, 1) : SEARCH_PAGE_SIZE, sort);
+        return staffRepository.findAll(searchSpecification(name, department, role, minSalary, maxSalary,
+                minRating, maxRating, hireDateFrom, hireDateTo, isActive), pageable);
     }
 
-    // Report generation method
-    public Map<String, Object> generateStaffReport(String startDate, String endDate, String department) {
-        Map<String, Object> report = new HashMap<>();
-        List<Staff> staffList = staffRepository.findAll();
+    private Specification<Staff> searchSpecification(String name, String department, String role,
+                                                     Double minSalary, Double maxSalary,
+                                                     Double minRating, Double maxRating,
+                                                     String hireDateFrom, String hireDateTo,
+                                                     Boolean isActive) {
+        // Parsed once per search, not once per row
+        LocalDate hiredFrom = hireDateFrom != null && !hireDateFrom.isEmpty() ? LocalDate.parse(hireDateFrom) : null;
+        LocalDate hiredTo = hireDateTo != null && !hireDateTo.isEmpty() ? LocalDate.parse(hireDateTo) : null;
+        return StaffSpecifications.filter(name, department, role, minSalary, maxSalary,
+                minRating, maxRating, hiredFrom, hiredTo, isActive);
+    }
 
+    /**
+     * Staff report for a hire-date window, optionally limited to one department. Totals,
+     * averages and the department and role breakdowns all come from one grouped query;
+     * results are cached for staff.report.cache-ttl-seconds per (start, end, department)
+     * and dropped whenever staff are created, updated or deleted.
+     */
+    public Map<String, Object> generateStaffReport(String startDate, String endDate, String department) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         LocalDate start = (startDate != null && !startDate.isEmpty()) ? LocalDate.parse(startDate, formatter) : LocalDate.of(2000, 1, 1);
         LocalDate end = (endDate != null && !endDate.isEmpty()) ? LocalDate.parse(endDate, formatter) : LocalDate.now();
+        String departmentFilter = (department != null && !department.isEmpty()) ? department : null;
 
-        // Filter staff based on criteria
-        List<Staff> filteredStaff = staffList.stream()
-                .filter(staff -> staff.getHireDate().isAfter(start.minusDays(1)) &&
-                        staff.getHireDate().isBefore(end.plusDays(1)))
-                .filter(staff -> department == null || department.isEmpty() ||
-                        (staff.getDepartment() != null && staff.getDepartment().equals(department)))
-                .collect(Collectors.toList());
-
-        // Report data
-        report.put("totalStaff", filteredStaff.size());
-        report.put("activeStaff", filteredStaff.stream().filter(Staff::getIsActive).count());
-        report.put("averageSalary", filteredStaff.stream()
-                .filter(staff -> staff.getSalary() != null)
-                .mapToDouble(Staff::getSalary)
-                .average()
-                .orElse(0.0));
-        report.put("averageRating", filteredStaff.stream()
-                .filter(staff -> staff.getPerformanceRating() != null)
-                .mapToDouble(Staff::getPerformanceRating)
-                .average()
-                .orElse(0.0));
-
-        // Department breakdown
-        Map<String, Long> departmentCount = filteredStaff.stream()
-                .filter(staff -> staff.getDepartment() != null)
-                .collect(Collectors.groupingBy(Staff::getDepartment, Collectors.counting()));
-        report.put("departmentBreakdown", departmentCount);
-
-        // Role breakdown
-        Map<String, Long> roleCount = filteredStaff.stream()
-                .collect(Collectors.groupingBy(Staff::getRole, Collectors.counting()));
-        report.put("roleBreakdown", roleCount);
-
+        List<Object> key = Arrays.asList(start, end, departmentFilter);
+        Map<String, Object> report = new HashMap<>(reportCache.get(key,
+                () -> buildStaffReport(start, end, departmentFilter)));
         report.put("reportPeriod",
                 (startDate != null ? startDate : "2000-01-01") + " to " +
                         (endDate != null ? endDate : LocalDate.now().toString()));
-        report.put("generatedAt", LocalDate.now().toString());
+        return report;
+    }
+
+    private Map<String, Object> buildStaffReport(LocalDate start, LocalDate end, String department) {
+        long totalStaff = 0;
+        long activeStaff = 0;
+        double salarySum = 0;
+        long salaryCount = 0;
+        double ratingSum = 0;
+        long ratingCount = 0;
+        Map<String, Long> departmentCount = new HashMap<>();
+        Map<String, Long> roleCount = new HashMap<>();
+
+        for (Object[] row : staffRepository.summarizeByDepartmentAndRole(start, end, department)) {
+            long count = ((Number) row[2]).longValue();
+            totalStaff += count;
+            activeStaff += row[3] != null ? ((Number) row[3]).longValue() : 0;
+            salarySum += row[4] != null ? ((Number) row[4]).doubleValue() : 0;
+            salaryCount += ((Number) row[5]).longValue();
+            ratingSum += row[6] != null ? ((Number) row[6]).doubleValue() : 0;
+            ratingCount += ((Number) row[7]).longValue();
+            if (row[0] != null) {
+                departmentCount.merge((String) row[0], count, Long::sum);
+            }
+            if (row[1] != null) {
+                roleCount.merge((String) row[1], count, Long::sum);
+            }
+        }
 
+        // Averages from sums and counts, so they weight every staff member equally across groups
+        Map<String, Object> report = new HashMap<>();
+        report.put("totalStaff", (int) totalStaff);
+        report.put("activeStaff", activeStaff);
+        report.put("averageSalary", salaryCount > 0 ? salarySum / salaryCount : 0.0);
+        report.put("averageRating", ratingCount > 0 ? ratingSum / ratingCount : 0.0);
+        report.put("departmentBreakdown", departmentCount);
+        report.put("roleBreakdown", roleCount);
+        report.put("generatedAt", LocalDate.now().toString());
         return report;
     }
 
-    // Improved employee ID generation to avoid duplicates
+    /**
+     * Next unused EMPnnn id. Numbers come from the employee_id sequence (seeded from the
+     * highest existing id), so this costs no table scan; ids entered by hand that the
+     * sequence has not reached yet are skipped.
+     */
     private String generateEmployeeId() {
-        // Get the maximum employee ID from the database
-        List<Staff> allStaff = staffRepository.findAll();
-
-        if (allStaff.isEmpty()) {
-            return "EMP001";
-        }
-
-        // Find the highest employee ID number
-        int maxId = allStaff.stream()
-                .map(Staff::getEmployeeId)
-                .filter(empId -> empId != null && empId.matches("^EMP\\d+$"))
-                .map(empId -> {
-                    try {
-                        return Integer.parseInt(empId.substring(3));
-                    } catch (NumberFormatException e) {
-                        return 0;
-                    }
-                })
-                .max(Integer::compareTo)
-                .orElse(0);
-
-        return String.format("EMP%03d", maxId + 1);
+        while (true) {
+            long number = sequenceAllocator.next(EMPLOYEE_ID_SEQUENCE, employeeIdBlockSize,
+                    () -> staffRepository.findMaxEmployeeNumber() + 1);
+            String employeeId = String.format("EMP%03d", number);
+            if (!staffRepository.existsByEmployeeId(employeeId)) {
+                return employeeId;
+            }
+        }
     }
 
     // Alternative simpler approach - using database count
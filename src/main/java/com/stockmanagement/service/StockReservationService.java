@@ -0,0 +1,174 @@
+package com.stockmanagement.service;
+
+import com.stockmanagement.dto.BillItemRequest;
+import com.stockmanagement.entity.Product;
+import com.stockmanagement.observer.StockChange;
+import com.stockmanagement.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reserves stock for all lines of a bill with one IN query to load the products, one
+ * SELECT ... FOR UPDATE over their quantities and one JDBC batch of conditional decrements.
+ * The batch is a single round-trip only when the MySQL driver rewrites batches
+ * (rewriteBatchedStatements=true on the JDBC URL); without that flag Connector/J still
+ * sends one UPDATE per line, just without per-line overhead in the service. The row locks (taken in id order, so checkouts sharing products queue
+ * instead of deadlocking) make the locked quantities exact until commit: validation and the
+ * published stock changes are computed from them, never from a stale read. The
+ * WHERE quantity >= ? guard stays as a last line of defence against overselling.
+ */
+@Service
+public class StockReservationService {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE item SET quantity = quantity - ?, updated_date = ? WHERE id = ? AND quantity >= ?";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemService itemService;
+
+    /**
+     * Reserve stock for every line. Must run inside the caller's transaction: if any line
+     * is short the exception rolls back the decrements already applied by the batch.
+     * @param lines Bill lines to reserve
+     * @return Products on the bill, keyed by id
+     * @throws InsufficientStockException listing every line that could not be reserved
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Product> reserve(List<BillItemRequest> lines) {
+        Map<Long, Product> products = loadProducts(lines);
+        Map<Long, Integer> lockedQuantities = lockQuantities(products.keySet());
+
+        // Validate against the locked quantities, lines for the same product drawing on one remainder
+        List<InsufficientStockException.Shortfall> shortfalls = new ArrayList<>();
+        Map<Long, Integer> remaining = new HashMap<>(lockedQuantities);
+        for (int i = 0; i < lines.size(); i++) {
+            BillItemRequest line = lines.get(i);
+            validateQuantity(line);
+            Product product = products.get(line.getProductId());
+            int available = remaining.get(product.getId());
+            if (available < line.getQuantity()) {
+                shortfalls.add(shortfall(i, product, line.getQuantity(), available));
+            } else {
+                remaining.put(product.getId(), available - line.getQuantity());
+            }
+        }
+        if (!shortfalls.isEmpty()) {
+            throw new InsufficientStockException(shortfalls);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = lines.stream()
+                .map(line -> new Object[]{line.getQuantity(), now, line.getProductId(), line.getQuantity()})
+                .collect(Collectors.toList());
+        int[] updateCounts = jdbcTemplate.batchUpdate(DECREMENT_SQL, batchArgs);
+
+        // Cannot happen while the rows are locked; kept so a change to the locking can never oversell
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                BillItemRequest line = lines.get(i);
+                Product product = products.get(line.getProductId());
+                shortfalls.add(shortfall(i, product, line.getQuantity(), currentQuantity(product.getId())));
+            }
+        }
+        if (!shortfalls.isEmpty()) {
+            throw new InsufficientStockException(shortfalls);
+        }
+
+        publishStockChanges(lines, products, lockedQuantities, now.toLocalDateTime());
+        return products;
+    }
+
+    /**
+     * Tell the stock observers about the decrements. They are delivered as one batch
+     * after the bill's transaction commits, one change per product.
+     * @param lockedQuantities Quantities read under the row locks, before the decrements
+     */
+    private void publishStockChanges(List<BillItemRequest> lines, Map<Long, Product> products,
+                                     Map<Long, Integer> lockedQuantities, LocalDateTime changedAt) {
+        // Running quantity per product, so repeated lines for the same product chain up
+        Map<Long, Integer> quantities = new HashMap<>(lockedQuantities);
+        for (BillItemRequest line : lines) {
+            Product product = products.get(line.getProductId());
+            int oldQuantity = quantities.get(product.getId());
+            int newQuantity = oldQuantity - line.getQuantity();
+            quantities.put(product.getId(), newQuantity);
+            itemService.publishStockChange(new StockChange(product.getId(), product.getName(), product.getCategory(),
+                    product.getSku(), product.getPrice(), oldQuantity, newQuantity, changedAt));
+        }
+    }
+
+    private Map<Long, Product> loadProducts(List<BillItemRequest> lines) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (BillItemRequest line : lines) {
+            productIds.add(line.getProductId());
+        }
+
+        Map<Long, Product> products = new HashMap<>(productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity())));
+
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new RuntimeException("Product not found with id: " + productId);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Lock the item rows for the rest of the transaction and read their current quantities.
+     * Rows are locked in id order so concurrent checkouts always acquire them in the same order.
+     */
+    private Map<Long, Integer> lockQuantities(Set<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        Collections.sort(ids);
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Map<Long, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT id, quantity FROM item WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE",
+                rs -> {
+                    quantities.put(rs.getLong(1), rs.getInt(2));
+                },
+                ids.toArray());
+        for (Long productId : ids) {
+            if (!quantities.containsKey(productId)) {
+                throw new RuntimeException("Product not found with id: " + productId);
+            }
+        }
+        return quantities;
+    }
+
+    private void validateQuantity(BillItemRequest line) {
+        if (line.getQuantity() == null || line.getQuantity() < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative for product id: " + line.getProductId());
+        }
+    }
+
+    private int currentQuantity(Long productId) {
+        Integer quantity = jdbcTemplate.queryForObject("SELECT quantity FROM item WHERE id = ?", Integer.class, productId);
+        return quantity != null ? quantity : 0;
+    }
+
+    private InsufficientStockException.Shortfall shortfall(int index, Product product, int requested, int available) {
+        return new InsufficientStockException.Shortfall(index + 1, product.getId(), product.getName(), requested, available);
+    }
+}
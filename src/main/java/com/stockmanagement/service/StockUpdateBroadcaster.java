@@ -0,0 +1,309 @@
+package com.stockmanagement.service;
+
+import com.stockmanagement.dto.StockUpdateMessage;
+import com.stockmanagement.observer.StockChange;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes stock deltas to connected dashboards over Server-Sent Events.
+ * Every client has its own outbound buffer keyed by item id: while a client is still being
+ * written to, newer changes to the same item replace the queued one, so a slow client
+ * receives the latest quantity per item rather than every intermediate step. When a client
+ * falls more than max-pending distinct items behind, its buffer is dropped and it is sent a
+ * single "resync" event telling it to reload the item list instead.
+ *
+ * Changes can arrive here out of commit order, so their quantities are not sent as they are:
+ * each batch re-reads the affected rows and numbers them under one lock. A higher version
+ * therefore always means a later read of committed state. Items created or edited through
+ * the item form also carry their details, and deleted items are sent as deletions.
+ * Batches come from StockPushObserver, whose own coalescing queue keeps these reads and the
+ * client writes off the commit path; changes that queue has to drop make every client resync.
+ *
+ * Configuration:
+ *   stock.push.max-clients - concurrent dashboard connections (default 200)
+ *   stock.push.max-pending - distinct items buffered per client (default 500)
+ *   stock.push.timeout-ms  - connection lifetime before the browser reconnects (default 30 minutes)
+ */
+@Component
+public class StockUpdateBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockUpdateBroadcaster.class);
+
+    public static final String UPDATE_EVENT = "stock-update";
+    public static final String RESYNC_EVENT = "resync";
+
+    @Value("${stock.push.max-clients:200}")
+    private int maxClients;
+
+    @Value("${stock.push.max-pending:500}")
+    private int maxPending;
+
+    @Value("${stock.push.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+    // Set when changes were dropped before reaching broadcast: the next one resyncs every client
+    private final AtomicBoolean missedChanges = new AtomicBoolean();
+    // Held from reading the rows until the messages are buffered, so versions follow read order
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+
+    /**
+     * Open a new dashboard connection
+     * @throws IllegalStateException if max-clients connections are already open
+     */
+    public SseEmitter connect() {
+        if (clients.size() >= maxClients) {
+            throw new IllegalStateException("Too many stock update subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Client client = new Client(emitter);
+        clients.add(client);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+        logger.debug("Stock update subscriber connected ({} open)", clients.size());
+        return emitter;
+    }
+
+    /**
+     * Record that some changes will never reach broadcast. Cheap enough for the publishing thread.
+     */
+    public void markMissedChanges() {
+        missedChanges.set(true);
+    }
+
+    /**
+     * Queue the current state of the changed items for every connected client
+     */
+    public void broadcast(List<StockChange> changes) {
+        if (missedChanges.getAndSet(false)) {
+            logger.warn("Stock updates were dropped before broadcasting, asking dashboards to resync");
+            for (Client client : clients) {
+                if (client.requestResync()) {
+                    senders.execute(client::drain);
+                }
+            }
+        }
+        if (changes.isEmpty() || clients.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>();
+        Set<Long> detailIds = new HashSet<>();
+        for (StockChange change : changes) {
+            if (change.getItemId() != null) {
+                ids.add(change.getItemId());
+                if (!change.isStockMovement()) {
+                    detailIds.add(change.getItemId());
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        publishLock.lock();
+        try {
+            List<StockUpdateMessage> messages;
+            try {
+                messages = readMessages(ids, detailIds);
+            } catch (DataAccessException e) {
+                // Without committed values nothing can be sent safely: have every client reload instead
+                logger.warn("Could not read {} changed item(s), asking dashboards to resync: {}", ids.size(), e.getMessage());
+                messages = null;
+            }
+            if (messages != null) {
+                published.add(messages.size());
+            }
+            for (Client client : clients) {
+                if (messages != null ? client.enqueue(messages) : client.requestResync()) {
+                    senders.execute(client::drain);
+                }
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Messages for the committed rows of the given items; items that no longer exist become deletions
+     */
+    private List<StockUpdateMessage> readMessages(Set<Long> ids, Set<Long> detailIds) {
+        List<Long> sortedIds = new ArrayList<>(ids);
+        Collections.sort(sortedIds);
+        String placeholders = String.join(", ", Collections.nCopies(sortedIds.size(), "?"));
+        Map<Long, StockUpdateMessage> messages = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, sku, quantity, price, category, description FROM item WHERE id IN ("
+                + placeholders + ")", rs -> {
+            long id = rs.getLong("id");
+            int quantity = rs.getInt("quantity");
+            long next = version.incrementAndGet();
+            messages.put(id, detailIds.contains(id)
+                    ? StockUpdateMessage.withDetails(id, quantity, next, new StockUpdateMessage.Details(
+                            rs.getString("name"), rs.getString("sku"), rs.getString("category"),
+                            rs.getBigDecimal("price"), rs.getString("description")))
+                    : new StockUpdateMessage(id, quantity, next));
+        }, sortedIds.toArray());
+        List<StockUpdateMessage> result = new ArrayList<>(sortedIds.size());
+        for (Long id : sortedIds) {
+            StockUpdateMessage message = messages.get(id);
+            result.add(message != null ? message : StockUpdateMessage.removed(id, version.incrementAndGet()));
+        }
+        return result;
+    }
+
+    /**
+     * Connection and delivery statistics
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("clients", clients.size());
+        metrics.put("published", published.sum());
+        metrics.put("sent", sent.sum());
+        metrics.put("coalesced", coalesced.sum());
+        metrics.put("resyncs", resyncs.sum());
+        metrics.put("version", version.get());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Client client : clients) {
+            client.emitter.complete();
+        }
+        clients.clear();
+        senders.shutdownNow();
+    }
+
+    /**
+     * One connected dashboard and its outbound buffer
+     */
+    private final class Client {
+        private final SseEmitter emitter;
+        // Latest pending message per item, in first-queued order
+        private final LinkedHashMap<Long, StockUpdateMessage> pending = new LinkedHashMap<>();
+        private boolean resyncPending;
+        private boolean draining;
+
+        private Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Buffer messages for this client
+         * @return true if the caller must start a drain for it
+         */
+        private synchronized boolean enqueue(List<StockUpdateMessage> messages) {
+            if (!resyncPending) {
+                for (StockUpdateMessage message : messages) {
+                    StockUpdateMessage replaced = pending.put(message.getItemId(), message);
+                    if (replaced != null) {
+                        // A newer quantity must not lose the details of a form edit still waiting to go out
+                        pending.put(message.getItemId(), message.keepingDetailsOf(replaced));
+                        coalesced.increment();
+                    }
+                }
+                if (pending.size() > maxPending) {
+                    // Too far behind: a full reload is cheaper than replaying the backlog
+                    pending.clear();
+                    resyncPending = true;
+                    resyncs.increment();
+                }
+            }
+            return startDrain();
+        }
+
+        /**
+         * Replace whatever is buffered with a single resync
+         * @return true if the caller must start a drain for it
+         */
+        private synchronized boolean requestResync() {
+            pending.clear();
+            if (!resyncPending) {
+                resyncPending = true;
+                resyncs.increment();
+            }
+            return startDrain();
+        }
+
+        private boolean startDrain() {
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                List<StockUpdateMessage> batch;
+                boolean resync;
+                synchronized (this) {
+                    if (pending.isEmpty() && !resyncPending) {
+                        draining = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    resync = resyncPending;
+                    resyncPending = false;
+                }
+                try {
+                    if (resync) {
+                        emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(version.get()));
+                    }
+                    for (StockUpdateMessage message : batch) {
+                        emitter.send(SseEmitter.event()
+                                .name(UPDATE_EVENT)
+                                .id(Long.toString(message.getVersion()))
+                                .data(message, MediaType.APPLICATION_JSON));
+                    }
+                    sent.add(batch.size());
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the emitter callbacks may not fire for a broken pipe
+                    clients.remove(this);
+                    emitter.completeWithError(e);
+                    synchronized (this) {
+                        pending.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
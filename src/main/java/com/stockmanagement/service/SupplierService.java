@@ -1,7 +1,11 @@
 package com.stockmanagement.service;
 
+import com.stockmanagement.config.ReferenceCacheConfig;
 import com.stockmanagement.entity.Supplier;
 import com.stockmanagement.repository.SupplierRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,22 +20,30 @@ public class SupplierService {
     }
 
     // Add Supplier
+    @CacheEvict(cacheNames = ReferenceCacheConfig.SUPPLIER_QUERIES, allEntries = true)
     public Supplier addSupplier(Supplier s) {
         return repo.save(s);
     }
 
-    // Get All Suppliers
+    // Get All Suppliers (cached as detached copies, never as managed entities)
+    @Cacheable(cacheNames = ReferenceCacheConfig.SUPPLIER_QUERIES, key = "'all'")
     public List<Supplier> getAllSuppliers() {
-        return repo.findAll();
+        return repo.findAll().stream().map(Supplier::new).toList();
     }
 
     // Get Supplier by ID
+    @Cacheable(cacheNames = ReferenceCacheConfig.SUPPLIERS, key = "#id")
     public Supplier getSupplierById(Long id) {
         return repo.findById(id)
+                .map(Supplier::new)
                 .orElseThrow(() -> new RuntimeException("Supplier not found"));
     }
 
     // Update Supplier
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ReferenceCacheConfig.SUPPLIERS, key = "#id"),
+            @CacheEvict(cacheNames = ReferenceCacheConfig.SUPPLIER_QUERIES, allEntries = true)
+    })
     public Supplier updateSupplier(Long id, Supplier updated) {
         Supplier existing = repo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Supplier not found"));
@@ -46,6 +58,10 @@ public class SupplierService {
     }
 
     // Delete Supplier
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ReferenceCacheConfig.SUPPLIERS, key = "#id"),
+            @CacheEvict(cacheNames = ReferenceCacheConfig.SUPPLIER_QUERIES, allEntries = true)
+    })
     public void deleteSupplier(Long id) {
         repo.deleteById(id);
     }
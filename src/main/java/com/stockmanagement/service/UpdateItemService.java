@@ -1,19 +1,39 @@
 package com.stockmanagement.service;
 
 import com.stockmanagement.entity.Item;
+import com.stockmanagement.observer.StockChange;
 import com.stockmanagement.repository.ItemRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Optional;
 
 @Service
 public class UpdateItemService {
 
     private final ItemRepository repository;
+    // ItemService depends on this service, so it is looked up on use
+    private final ObjectProvider<ItemService> itemService;
 
-    public UpdateItemService(ItemRepository repository) {
+    public UpdateItemService(ItemRepository repository, ObjectProvider<ItemService> itemService) {
         this.repository = repository;
+        this.itemService = itemService;
     }
 
+    @Transactional
     public Item updateItem(Item item) {
-        return repository.save(item);
+        // Lock the row, so the quantity and price recorded as "before" are the ones this save replaces
+        Optional<Item> current = item.getId() != null ? repository.findByIdForUpdate(item.getId()) : Optional.empty();
+        int oldQuantity = current.map(Item::getQuantity).orElse(0);
+        BigDecimal oldPrice = current.map(Item::getPrice).orElse(null);
+
+        Item saved = repository.save(item);
+        // Published after commit; the catalog cache re-reads the row rather than caching the request's Item
+        itemService.getObject().publishStockChange(current.isPresent()
+                ? StockChange.edited(saved, oldQuantity, oldPrice)
+                : StockChange.created(saved));
+        return saved;
     }
-}
\ No newline at end of file
+}
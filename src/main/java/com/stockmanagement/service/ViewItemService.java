@@ -1,7 +1,6 @@
 package com.stockmanagement.service;
 
 import com.stockmanagement.entity.Item;
-import com.stockmanagement.repository.ItemRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -10,17 +9,17 @@ import java.util.Optional;
 @Service
 public class ViewItemService {
 
-    private final ItemRepository repository;
+    private final ItemCatalogCache catalog;
 
-    public ViewItemService(ItemRepository repository) {
-        this.repository = repository;
+    public ViewItemService(ItemCatalogCache catalog) {
+        this.catalog = catalog;
     }
 
     public List<Item> getAllItems() {
-        return repository.findAll();
+        return catalog.getAllItems();
     }
 
     public Optional<Item> getItemById(int id) {
-        return repository.findById((long) id);
+        return catalog.getItem(id);
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.stockmanagement.service;
 
+import com.stockmanagement.config.ReferenceCacheConfig;
 import com.stockmanagement.entity.Supplier;
 import com.stockmanagement.repository.SupplierRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,12 +16,16 @@ public class ViewSupplierService {
         this.repository = repository;
     }
 
+    // Cached as detached copies, never as managed entities
+    @Cacheable(cacheNames = ReferenceCacheConfig.SUPPLIER_QUERIES, key = "'all'")
     public List<Supplier> getAllSuppliers() {
-        return repository.findAll();
+        return repository.findAll().stream().map(Supplier::new).toList();
     }
 
+    // Shares the region with SupplierService, which throws for a missing id: never cache the null
+    @Cacheable(cacheNames = ReferenceCacheConfig.SUPPLIERS, key = "#id", unless = "#result == null")
     public Supplier getSupplierById(Long id) {
-        return repository.findById(id).orElse(null);
+        return repository.findById(id).map(Supplier::new).orElse(null);
     }
 }
 
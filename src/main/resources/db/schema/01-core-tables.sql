@@ -1,7 +1,7 @@
 -- ============================================================================
 -- STOCK MANAGEMENT SYSTEM - CORE SCHEMA
 -- Version: 1.0
--- Description: Core tables for users, authentication, and audit logging
+-- Description: Core tables for users, authentication, audit logging and id sequences
 -- ============================================================================
 
 -- Users Table
@@ -67,6 +67,20 @@ CREATE TABLE IF NOT EXISTS audit_log (
     CONSTRAINT fk_audit_user FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE SET NULL
 );
 
+-- Audit Spill Progress Table (lines of each audit spill file already replayed into audit_log)
+CREATE TABLE IF NOT EXISTS audit_spill_progress (
+    file_name VARCHAR(100) NOT NULL,
+    lines_done BIGINT NOT NULL,
+    PRIMARY KEY (file_name)
+);
+
+-- Id Sequences Table (block-leased number generators, e.g. bill numbers)
+CREATE TABLE IF NOT EXISTS id_sequences (
+    sequence_name VARCHAR(50) NOT NULL,
+    next_value BIGINT NOT NULL,
+    PRIMARY KEY (sequence_name)
+);
+
 -- Indexes for Core Tables
 CREATE INDEX idx_users_username ON users(username);
 CREATE INDEX idx_users_email ON users(email);
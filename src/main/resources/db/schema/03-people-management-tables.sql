@@ -49,12 +49,30 @@ CREATE TABLE IF NOT EXISTS customers (
     PRIMARY KEY (id)
 );
 
+-- Customer Stats Table (maintained incrementally by CustomerStatsService; '' = no membership level)
+CREATE TABLE IF NOT EXISTS customer_stats (
+    membership_level VARCHAR(50) NOT NULL,
+    customer_count BIGINT NOT NULL DEFAULT 0,
+    active_count BIGINT NOT NULL DEFAULT 0,
+    loyalty_points_total BIGINT NOT NULL DEFAULT 0,
+    loyalty_points_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (membership_level)
+);
+
 -- Indexes for People Management Tables
 CREATE INDEX idx_staff_employee_id ON staff(employee_id);
 CREATE INDEX idx_staff_email ON staff(email);
 CREATE INDEX idx_staff_department ON staff(department);
 CREATE INDEX idx_staff_active ON staff(is_active);
+CREATE INDEX idx_staff_dept_role_active ON staff(department, role, is_active);
+CREATE INDEX idx_staff_hire_date ON staff(hire_date);
 CREATE INDEX idx_customers_customer_id ON customers(customer_id);
 CREATE INDEX idx_customers_email ON customers(email);
 CREATE INDEX idx_customers_phone ON customers(phone);
 CREATE INDEX idx_customers_membership ON customers(membership_level);
+CREATE INDEX idx_customers_last_name_id ON customers(last_name, id);
+-- Built without stopwords: the ngram parser drops every token containing one (e.g. "a"), which would
+-- leave most bigrams of names unindexed. The comment tells the application the index is usable.
+SET SESSION innodb_ft_enable_stopword = OFF;
+CREATE FULLTEXT INDEX ft_customers_search ON customers(first_name, last_name, email, phone, customer_id) WITH PARSER ngram COMMENT 'ngram, stopwords off';
+SET SESSION innodb_ft_enable_stopword = DEFAULT;
@@ -37,6 +37,16 @@ CREATE TABLE IF NOT EXISTS bill_items (
     CONSTRAINT fk_bill_items_product FOREIGN KEY (product_id) REFERENCES item(id)
 );
 
+-- Daily Sales Rollup Table (maintained incrementally by SalesRollupService)
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (
+    sale_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    bill_count BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    tax DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    PRIMARY KEY (sale_date, status)
+);
+
 -- Indexes for Sales Tables
 CREATE INDEX idx_bills_customer_id ON bills(customer_id);
 CREATE INDEX idx_bills_bill_date ON bills(bill_date);